@@ -0,0 +1,91 @@
+package swarogi.benchmarks;
+
+import swarogi.common.Configuration;
+import swarogi.common.ContentManager;
+import swarogi.common.WindowSize;
+import swarogi.data.Database;
+import swarogi.datamodels.UnitData;
+import swarogi.engine.MapGenerator;
+import swarogi.engine.Movement;
+import swarogi.game.GameMap;
+import swarogi.game.GameSession;
+import swarogi.game.ScriptedControls;
+import swarogi.game.Tile;
+import swarogi.models.Player;
+import swarogi.models.Unit;
+
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/* Mapa z generatora (stałe ziarno, dwóch graczy) z rozstawionymi jednostkami graczy - wspólne dane
+ * wejściowe benchmarków. Rozmiar mapy podawany jest jako "szerokośćxwysokość" (w polach). */
+final class BenchmarkWorld {
+
+    static final long SEED = 20240601L;
+    static final int SAMPLES = 1024;
+
+    private static boolean initialized;
+
+    final GameMap map;
+    final GameSession session;
+    final List<Unit> units;
+    final Tile[] sampleTiles;
+
+    private BenchmarkWorld(GameMap map) {
+        this.map = map;
+        this.session = new GameSession(map, new ScriptedControls());
+        this.units = new ArrayList<>();
+
+        Random random = new Random(SEED);
+        UnitData[] models = { Database.Warrior, Database.Bowman, Database.Rider, Database.Worker };
+        int unitsPerPlayer = Math.max(4, map.getTilesX() * map.getTilesY() / 400);
+        for (Player player : session.getPlayers()) {
+            for (int i = 0; i < unitsPerPlayer; ++i) {
+                Unit unit = new Unit(models[random.nextInt(models.length)], player);
+                Tile tile = randomTile(map, random);
+                if (Movement.canPlace(unit.getUnitData(), tile) && map.tryPlace(unit, tile)) {
+                    map.addDestructible(unit);
+                    player.addUnit(unit);
+                }
+            }
+            units.addAll(player.getUnits());
+        }
+
+        this.sampleTiles = new Tile[SAMPLES];
+        for (int i = 0; i < SAMPLES; ++i) {
+            sampleTiles[i] = randomTile(map, random);
+        }
+    }
+
+    static synchronized void initialize() {
+        if (initialized) { return; }
+        System.setProperty("java.awt.headless", "true");
+        WindowSize.setWindowSizeProvider(() -> new Dimension(Configuration.WINDOW_WIDTH, Configuration.WINDOW_HEIGHT));
+        ContentManager.loadContent();
+        Database.initialize();
+        initialized = true;
+    }
+
+    static BenchmarkWorld create(String mapSize) {
+        initialize();
+        return new BenchmarkWorld(generateMap(mapSize));
+    }
+
+    static GameMap generateMap(String mapSize) {
+        initialize();
+        int separator = mapSize.indexOf('x');
+        return new MapGenerator(Integer.parseInt(mapSize.substring(0, separator)),
+                Integer.parseInt(mapSize.substring(separator + 1)), 2, SEED).createMap();
+    }
+
+    // Kolejne pole z puli losowych pól (indeks przechodzi cyklicznie po puli).
+    Tile sampleTile(int index) { return sampleTiles[index & (SAMPLES - 1)]; }
+
+    Unit sampleUnit(int index) { return units.get(index % units.size()); }
+
+    private static Tile randomTile(GameMap map, Random random) {
+        return map.getTile(random.nextInt(map.getTilesX()), random.nextInt(map.getTilesY()));
+    }
+}
@@ -0,0 +1,50 @@
+package swarogi.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import swarogi.engine.MapLoader;
+import swarogi.game.GameMap;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+// Odczyt i zapis mapy w formacie tekstowym.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class MapIoBenchmark {
+
+    @Param({ "40x20", "200x200", "1000x1000" })
+    public String mapSize;
+
+    private GameMap map;
+    private File loadedFile;
+    private File savedFile;
+
+    @Setup
+    public void setup() throws IOException {
+        map = BenchmarkWorld.generateMap(mapSize);
+        loadedFile = File.createTempFile("swarogi-load-", ".txt");
+        savedFile = File.createTempFile("swarogi-save-", ".txt");
+        MapLoader.saveMap(map, loadedFile.getPath());
+    }
+
+    @TearDown
+    public void tearDown() {
+        loadedFile.delete();
+        savedFile.delete();
+    }
+
+    @Benchmark
+    public GameMap loadMap() {
+        return MapLoader.loadMap(loadedFile.getPath());
+    }
+
+    @Benchmark
+    public void saveMap() {
+        MapLoader.saveMap(map, savedFile.getPath());
+    }
+}
@@ -0,0 +1,35 @@
+package swarogi.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import swarogi.engine.Pathfinding;
+
+import java.util.concurrent.TimeUnit;
+
+// Wyznaczanie osiągalnych pól jednostki dla różnych zasięgów ruchu.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class PathfindingBenchmark {
+
+    @Param({ "40x20", "200x200", "1000x1000" })
+    public String mapSize;
+
+    @Param({ "3", "6", "12", "24" })
+    public int steps;
+
+    private BenchmarkWorld world;
+    private int next;
+
+    @Setup
+    public void setup() {
+        world = BenchmarkWorld.create(mapSize);
+    }
+
+    @Benchmark
+    public Pathfinding construct() {
+        return new Pathfinding(world.sampleUnit(next++).getTile(), steps);
+    }
+}
@@ -0,0 +1,48 @@
+package swarogi.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import swarogi.data.Database;
+import swarogi.engine.Movement;
+import swarogi.game.Tile;
+import swarogi.game.TilesSelection;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Wyznaczanie pól zajmowanych przez obiekt i sprawdzanie, czy można go umieścić na polu.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class PlacementBenchmark {
+
+    @Param({ "40x20", "200x200", "1000x1000" })
+    public String mapSize;
+
+    private BenchmarkWorld world;
+    private TilesSelection gordSelection;
+    private int next;
+
+    @Setup
+    public void setup() {
+        world = BenchmarkWorld.create(mapSize);
+        gordSelection = TilesSelection.get(Database.Gord.getPlacingTileGroup());
+    }
+
+    @Benchmark
+    public List<Tile> applySelection() {
+        return gordSelection.applyTo(world.sampleTile(next++));
+    }
+
+    @Benchmark
+    public boolean canPlaceUnit() {
+        return Movement.canPlace(Database.Warrior, world.sampleTile(next++));
+    }
+
+    @Benchmark
+    public boolean canPlaceBuilding() {
+        return Movement.canPlace(Database.Barracks, world.sampleTile(next++));
+    }
+}
@@ -0,0 +1,77 @@
+package swarogi.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import swarogi.game.DestructiblesInRange;
+import swarogi.game.Tile;
+import swarogi.interfaces.Destructible;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Zapytania o pola i obiekty w zasięgu (ataki dystansowe, umiejętności).
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class RangeQueryBenchmark {
+
+    // Liczba pól w zapytaniu zbiorczym (np. jednostki gracza oceniane w jednej turze)
+    private static final int BATCH_SIZE = 64;
+
+    @Param({ "40x20", "200x200", "1000x1000" })
+    public String mapSize;
+
+    @Param({ "2", "5" })
+    public int radius;
+
+    private BenchmarkWorld world;
+    private int next;
+    private Tile[] batchTiles;
+    private int[] batchTileIndices;
+    private int[] batchRadii;
+    private DestructiblesInRange batchResult;
+
+    @Setup
+    public void setup() {
+        world = BenchmarkWorld.create(mapSize);
+        batchTiles = new Tile[BATCH_SIZE];
+        batchTileIndices = new int[BATCH_SIZE];
+        batchRadii = new int[BATCH_SIZE];
+        for (int i = 0; i < BATCH_SIZE; ++i) {
+            batchTiles[i] = world.sampleUnit(i).getTile();
+            batchTileIndices[i] = batchTiles[i].getIndex();
+            batchRadii[i] = radius;
+        }
+        batchResult = new DestructiblesInRange();
+    }
+
+    @Benchmark
+    public List<Tile> tilesInRing() {
+        return world.map.getTilesInRing(world.sampleTile(next++), 1, radius);
+    }
+
+    @Benchmark
+    public HashMap<Destructible, Integer> destructiblesInRange() {
+        return world.map.getMinDistancesToDestructiblesInRange(world.sampleUnit(next++).getTile(), radius);
+    }
+
+    // Cele w zasięgu BATCH_SIZE jednostek - osobne zapytania...
+    @Benchmark
+    public int destructiblesInRangeSeparately() {
+        int found = 0;
+        for (Tile tile : batchTiles) {
+            found += world.map.getMinDistancesToDestructiblesInRange(tile, radius).size();
+        }
+        return found;
+    }
+
+    // ...i jedno zapytanie zbiorcze.
+    @Benchmark
+    public int destructiblesInRangeBatched() {
+        world.map.findDestructiblesInRange(batchTileIndices, batchRadii, BATCH_SIZE, batchResult);
+        return batchResult.size();
+    }
+}
@@ -0,0 +1,91 @@
+package swarogi.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import swarogi.common.Configuration;
+import swarogi.common.ContentManager;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Barwienie podstaw modeli na kolory wszystkich graczy.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class RecolorBenchmark {
+
+    @Param({
+            "content/units/worker-base.png",
+            "content/units/rider-base.png",
+            "content/buildings/farm-b0-base.png",
+            "content/buildings/gord-base.png",
+    })
+    public String sprite;
+
+    private BufferedImage image;
+    private List<Color> colors;
+
+    @Setup
+    public void setup() throws IOException {
+        image = ContentManager.toCompatibleImage(ImageIO.read(new File(sprite)));
+        colors = Configuration.PLAYER_COLORS;
+    }
+
+    /* Wszystkie warianty zwracają komplet obrazów (tak jak w grze, gdzie wszystkie kolory są zapamiętywane),
+     * aby porównanie nie zależało od tego, ile pamięci pozostaje zajęte. */
+
+    // Dotychczasowe barwienie: kopia obrazu i getRGB / setRGB osobno dla każdego koloru.
+    @Benchmark
+    public BufferedImage[] copyAndGetSetRGB() {
+        BufferedImage[] result = new BufferedImage[colors.size()];
+        for (int k = 0; k < result.length; ++k) {
+            Color color = colors.get(k);
+            BufferedImage copy = ContentManager.copyImage(image);
+            int w = copy.getWidth();
+            int h = copy.getHeight();
+            int[] rgb = copy.getRGB(0, 0, w, h, null, 0, w);
+            int toggleRGB = color.getRGB() & 0x00ffffff;
+            for (int i = 0; i < rgb.length; i++) {
+                if ((rgb[i] & 0x00ffffff) == 0) {
+                    rgb[i] ^= toggleRGB;
+                }
+            }
+            copy.setRGB(0, 0, w, h, rgb, 0, w);
+            result[k] = copy;
+        }
+        return result;
+    }
+
+    @Benchmark
+    public BufferedImage[] changeColorInPlace() {
+        BufferedImage[] result = new BufferedImage[colors.size()];
+        for (int k = 0; k < result.length; ++k) {
+            Color color = colors.get(k);
+            result[k] = ContentManager.copyImage(image);
+            ContentManager.changeColor(result[k], 0, 0, 0, color.getRed(), color.getGreen(), color.getBlue());
+        }
+        return result;
+    }
+
+    @Benchmark
+    public BufferedImage[] coloredBasePerColor() {
+        BufferedImage[] result = new BufferedImage[colors.size()];
+        for (int k = 0; k < result.length; ++k) {
+            Color color = colors.get(k);
+            result[k] = ContentManager.createColoredBaseFromImage(image, color.getRed(), color.getGreen(), color.getBlue());
+        }
+        return result;
+    }
+
+    @Benchmark
+    public BufferedImage[] coloredBasesSinglePass() {
+        return ContentManager.createColoredBasesFromImage(image, colors);
+    }
+}
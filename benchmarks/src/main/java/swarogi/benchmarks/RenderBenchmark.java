@@ -0,0 +1,91 @@
+package swarogi.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import swarogi.common.Configuration;
+import swarogi.game.GameCamera;
+import swarogi.game.Renderer;
+import swarogi.game.Tile;
+import swarogi.interfaces.Placeable;
+import swarogi.models.Building;
+import swarogi.models.Decoration;
+import swarogi.models.Obstacle;
+import swarogi.models.Unit;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Rysowanie klatki (teren i obiekty widoczne w oknie) do obrazu, bez okna.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class RenderBenchmark {
+
+    @Param({ "40x20", "200x200", "1000x1000" })
+    public String mapSize;
+
+    private BenchmarkWorld world;
+    private Renderer renderer;
+    private GameCamera camera;
+    private BufferedImage frame;
+    private List<Placeable> placeables;
+
+    @Setup
+    public void setup() {
+        world = BenchmarkWorld.create(mapSize);
+        renderer = new Renderer();
+        frame = new BufferedImage(Configuration.WINDOW_WIDTH, Configuration.WINDOW_HEIGHT, BufferedImage.TYPE_INT_RGB);
+        placeables = new ArrayList<>();
+
+        // Kamera nad pierwszym graczem, tak jak na początku gry
+        Point center = world.map.getPlayerPositions().get(0).getCenter();
+        camera = new GameCamera();
+        camera.x = Math.max(0, center.x - frame.getWidth() / 2);
+        camera.y = Math.max(0, center.y - frame.getHeight() / 2);
+        camera.setViewport(frame.getWidth(), frame.getHeight());
+    }
+
+    @Benchmark
+    public BufferedImage renderFrame() {
+        Graphics2D g = frame.createGraphics();
+        renderer.startRendering(g, camera);
+
+        int columnWidth = Configuration.TILE_WIDTH - Configuration.TILE_SLANT_WIDTH;
+        int firstX = Math.max(0, camera.x / columnWidth - 1);
+        int lastX = Math.min(world.map.getTilesX() - 1, (camera.x + frame.getWidth()) / columnWidth + 1);
+        int firstY = Math.max(0, camera.y / Configuration.TILE_HEIGHT - 1);
+        int lastY = Math.min(world.map.getTilesY() - 1, (camera.y + frame.getHeight()) / Configuration.TILE_HEIGHT + 1);
+        for (int x = firstX; x <= lastX; ++x) {
+            for (int y = firstY; y <= lastY; ++y) {
+                Tile tile = world.map.getTile(x, y);
+                renderer.render(tile);
+            }
+        }
+
+        placeables.clear();
+        world.map.getPlaceablesInArea(camera.x, camera.y, frame.getWidth(), frame.getHeight(), placeables);
+        for (Placeable placeable : placeables) {
+            if (placeable instanceof Obstacle) {
+                renderer.render((Obstacle)placeable);
+            }
+            else if (placeable instanceof Unit) {
+                renderer.render((Unit)placeable);
+            }
+            else if (placeable instanceof Building) {
+                renderer.render((Building)placeable);
+            }
+            else if (placeable instanceof Decoration) {
+                renderer.render((Decoration)placeable);
+            }
+        }
+
+        renderer.endRendering();
+        g.dispose();
+        return frame;
+    }
+}
@@ -0,0 +1,46 @@
+package swarogi.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import swarogi.data.Database;
+import swarogi.engine.Targeting;
+import swarogi.datamodels.TargetRules;
+import swarogi.models.Unit;
+
+import java.util.concurrent.TimeUnit;
+
+// Sprawdzanie, czy jednostka może wybrać inną jednostkę za cel ataku lub umiejętności.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class TargetingBenchmark {
+
+    @Param({ "40x20", "200x200", "1000x1000" })
+    public String mapSize;
+
+    private BenchmarkWorld world;
+    private TargetRules meleeTargets;
+    private TargetRules skillTargets;
+    private int next;
+
+    @Setup
+    public void setup() {
+        world = BenchmarkWorld.create(mapSize);
+        meleeTargets = Database.Warrior.getBaseAttacks().get(0).getTargetRules();
+        skillTargets = Database.Volkhv.getBaseSkills().get(0).getTargetRules();
+    }
+
+    @Benchmark
+    public boolean canTargetWithAttack() {
+        Unit origin = world.sampleUnit(next++);
+        return Targeting.canTarget(origin, world.sampleUnit(next * 7), meleeTargets);
+    }
+
+    @Benchmark
+    public boolean canTargetWithSkill() {
+        Unit origin = world.sampleUnit(next++);
+        return Targeting.canTarget(origin, world.sampleUnit(next * 7), skillTargets);
+    }
+}
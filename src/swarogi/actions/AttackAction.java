@@ -32,7 +32,7 @@ public class AttackAction implements Action {
     @Override
     public boolean canBeExecuted() {
         // TODO: Wypadałoby sprawdzić zasięg ataku
-        return attacker.isAlive() && target.getHealth() > 0 && Targeting.canTarget(attacker, target, attackData.getAllowedTargets())
+        return attacker.isAlive() && target.getHealth() > 0 && Targeting.canTarget(attacker, target, attackData.getTargetRules())
             && attacker.hasActionPoints(Configuration.ATTACK_ACTION_POINTS_COST)
             && attacker.getOwner().hasCommandPoints(Configuration.ATTACK_COMMAND_POINTS_COST);
     }
@@ -67,7 +67,7 @@ public class AttackAction implements Action {
         else {
             if (attackData.getAttackType() == AttackType.Melee
                     && attacker.getOwner().hasUpgrade(Database.IncreasedMeleeBleeding)) {
-                int prob = (int)attacker.getOwner().getUpgradeValue(Database.IncreasedMeleeBleeding);
+                int prob = attacker.getOwner().getUpgradeValue(Database.IncreasedMeleeBleeding);
                 if (Rng.getInt(100) <= prob) {
                     target.addEffect(Database.Bleeding);
                 }
@@ -65,9 +65,16 @@ public class MovementAction implements Action {
         started = true;
     }
 
+    // Stan gry zmienia się od razu, a przejście jednostki po trasie jest jedynie animowane.
     @Override
     public void update() {
-        unit.updateMovement();
+        unit.resolveMovement(true);
+    }
+
+    @Override
+    public void resolve() {
+        unit.resolveMovement(false);
+        unit.stopAnimation();
     }
 
     @Override
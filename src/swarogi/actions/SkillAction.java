@@ -5,9 +5,10 @@ import swarogi.common.Rng;
 import swarogi.data.Database;
 import swarogi.datamodels.EffectData;
 import swarogi.datamodels.SkillData;
+import swarogi.datamodels.TargetRules;
 import swarogi.engine.Movement;
 import swarogi.engine.Targeting;
-import swarogi.enums.TargetType;
+import swarogi.game.DestructiblesInRange;
 import swarogi.game.GameMap;
 import swarogi.interfaces.Action;
 import swarogi.interfaces.Destructible;
@@ -16,7 +17,6 @@ import swarogi.models.Player;
 import swarogi.models.Unit;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 
 public class SkillAction implements Action {
@@ -45,7 +45,7 @@ public class SkillAction implements Action {
                 && user.isSkillReady(skillData)) {
 
             if (!skillData.isAutoUse()) {
-                return target != null && Targeting.canTarget(user, target, skillData.getAllowedTargets());
+                return target != null && Targeting.canTarget(user, target, skillData.getTargetRules());
             }
             return true;
         }
@@ -72,10 +72,12 @@ public class SkillAction implements Action {
         List<Destructible> targets = new ArrayList<>();
         if (skillData.isAutoUse()) {
             int minDistance = skillData.getMinDistance();
-            List<TargetType> targetingInfo = skillData.getAllowedTargets();
-            HashMap<Destructible, Integer> destructiblesInRange = gameMap.getMinDistancesToDestructiblesInRange(user.getTile(), skillData.getMaxDistance());
-            for (Destructible destructible : destructiblesInRange.keySet()) {
-                if (destructiblesInRange.get(destructible) >= minDistance && Targeting.canTarget(user, destructible, targetingInfo)) {
+            TargetRules targetRules = skillData.getTargetRules();
+            DestructiblesInRange destructiblesInRange = new DestructiblesInRange();
+            gameMap.findDestructiblesInRange(user.getTile(), skillData.getMaxDistance(), destructiblesInRange);
+            for (int entry = destructiblesInRange.getStart(0); entry < destructiblesInRange.getEnd(0); ++entry) {
+                Destructible destructible = destructiblesInRange.getDestructible(entry);
+                if (destructiblesInRange.getDistance(entry) >= minDistance && Targeting.canTarget(user, destructible, targetRules)) {
                     targets.add(destructible);
                 }
             }
@@ -9,7 +9,10 @@ public final class Configuration {
     public static final int WINDOW_WIDTH = 960;
     public static final int WINDOW_HEIGHT = 720;
     public static final String WINDOW_TITLE = "Swarogi 0.1";
-    public static final int FPS = 30;
+    public static final int FPS = 30;                   // Liczba kroków logiki na sekundę
+    public static final int MAX_RENDER_FPS = 60;
+    public static final int MAX_UPDATES_PER_FRAME = 5;
+    public static final int FRAME_STATISTICS_SIZE = 240;
 
     public static final int TILE_WIDTH;
     public static final int TILE_HEIGHT;
@@ -17,6 +20,20 @@ public final class Configuration {
 
     public static final int CAMERA_SPEED = 20;
 
+    // Rozmiar (w pikselach) kwadratowych komórek siatki, na którą podzielona jest mapa przy wyszukiwaniu widocznych obiektów
+    public static final int PLACEABLES_INDEX_CELL_SIZE = 256;
+
+    // Teren rysowany jest z gotowych obrazów fragmentów mapy (liczba pól w boku fragmentu, najmniejsza liczba
+    // zapamiętanych fragmentów - przy dużym oknie pamiętane są co najmniej wszystkie widoczne fragmenty z zapasem)
+    public static final int TERRAIN_CHUNK_TILES = 8;
+    public static final int TERRAIN_CHUNK_CACHE_SIZE = 32;
+
+    // Liczba wątków dekodujących obrazy podczas wczytywania zasobów
+    public static final int CONTENT_LOADING_THREADS = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors()));
+
+    // Rozmiar boku arkusza tekstur, do którego pakowane są przeskalowane tekstury obiektów
+    public static final int TEXTURE_ATLAS_SIZE = 2048;
+
     public static final int BASE_COMMAND_POINTS = 10;
     public static final int MAX_TRIBE_PATH_LEVEL = 5;
     public static final int WOOD_PER_ADJACENT_TREE = 5;
@@ -64,6 +81,7 @@ public final class Configuration {
 
     public static boolean areHpBarsVisible = true;
     public static boolean isHexagonalMeshVisible = true;
+    public static boolean areFrameStatisticsVisible = false;
     public static boolean mapBuildingXSymmetry = false;
     public static boolean mapBuildingYSymmetry = false;
     public static boolean mapBuildingDiagSymmetry = false;
@@ -9,22 +9,31 @@ import swarogi.enums.TribePath;
 import javax.imageio.ImageIO;
 import java.awt.*;
 import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
 
+/* Obrazy dekodowane są równolegle przez ograniczoną pulę wątków. Rzadziej używane tekstury (stany budowy,
+ * ikony, zwierzęta ścieżek plemienia) wczytywane są dopiero przy pierwszym użyciu. Pobranie obrazu,
+ * który nie został jeszcze wczytany, czeka na jego odczyt (lub wykonuje go od razu w bieżącym wątku). */
 public final class ContentManager {
 
     public static BufferedImage getTileSelection(TileSelectionTag selectionTag) {
-        return tileSelections.get(selectionTag);
+        return await(tileSelections.get(selectionTag));
     }
 
     public static BufferedImage getTerrain(TerrainType terrainType) {
-        return terrain.getOrDefault(terrainType, null);
+        return await(terrain.getOrDefault(terrainType, null));
     }
 
     public static TerrainExtensionInfo getTerrainExtension(TerrainType terrainType) {
-        return terrainExtensions.getOrDefault(terrainType, null);
+        return await(terrainExtensions.getOrDefault(terrainType, null));
     }
 
     public static BufferedImage getModel(String modelName, ObjectState state) {
@@ -34,6 +43,8 @@ public final class ContentManager {
         return null;
     }
 
+    public static Model getModel(String modelName) { return models.getOrDefault(modelName, null); }
+
     public static BufferedImage getModelTextureBase(String textureBaseName, ObjectState state) {
         if (modelTextureBases.containsKey(textureBaseName)) {
             return modelTextureBases.get(textureBaseName).getTexture(state);
@@ -41,24 +52,87 @@ public final class ContentManager {
         return null;
     }
 
-    public static BufferedImage getIcon(String modelName) { return icons.getOrDefault(modelName, null); }
+    // Podstawa modelu w kolorze gracza. Podstawy niewyznaczone wcześniej w tle barwione są przy pierwszym użyciu.
+    public static BufferedImage getTintedTextureBase(String textureBaseName, ObjectState state, Color color) {
+        if (!modelTextureBases.containsKey(textureBaseName)) { return null; }
+        return await(tintedTextureBases.computeIfAbsent(new TintedTextureKey(textureBaseName, state, color),
+                key -> new FutureTask<>(() -> tintTextureBase(key))));
+    }
+
+    /* Zleca w tle zabarwienie podstaw wszystkich modeli (we wszystkich stanach) na podane kolory graczy.
+     * Wszystkie kolory danej podstawy wyznaczane są w jednym zadaniu, z jednokrotnie odczytanych pikseli. */
+    public static void prepareTintedTextureBases(List<Color> colors) {
+        for (Map.Entry<String, Model> entry : modelTextureBases.entrySet()) {
+            for (ObjectState state : entry.getValue().getStates()) {
+                Model model = entry.getValue();
+                FutureTask<BufferedImage[]> tinted = new FutureTask<>(() -> {
+                    BufferedImage textureBase = model.getTexture(state);
+                    return textureBase != null ? createColoredBasesFromImage(textureBase, colors) : null;
+                });
+                boolean requested = false;
+                for (int i = 0; i < colors.size(); ++i) {
+                    int index = i;
+                    TintedTextureKey key = new TintedTextureKey(entry.getKey(), state, colors.get(i));
+                    if (tintedTextureBases.putIfAbsent(key, new FutureTask<>(() -> {
+                        BufferedImage[] images = await(tinted);
+                        return images != null ? images[index] : null;
+                    })) == null) {
+                        requested = true;
+                    }
+                }
+                if (requested) { loader.execute(tinted); }
+            }
+        }
+    }
+
+    private static BufferedImage tintTextureBase(TintedTextureKey key) {
+        BufferedImage textureBase = getModelTextureBase(key.textureBaseName, key.state);
+        if (textureBase == null) { return null; }
+        return createColoredBaseFromImage(textureBase, key.color.getRed(), key.color.getGreen(), key.color.getBlue());
+    }
+
+    public static BufferedImage getIcon(String modelName) { return await(icons.getOrDefault(modelName, null)); }
 
     public static BufferedImage getAnimal(TribePath animal, boolean hovered, boolean completed) {
-        return hovered ? animalsHover.getOrDefault(animal, null)
+        return await(hovered ? animalsHover.getOrDefault(animal, null)
                 : completed ? animalsCompleted.getOrDefault(animal, null)
-                : animalsDefault.getOrDefault(animal, null);
+                : animalsDefault.getOrDefault(animal, null));
     }
 
-    private final static HashMap<TileSelectionTag, BufferedImage> tileSelections;
-    private final static HashMap<TerrainType, BufferedImage> terrain;
-    private final static HashMap<TerrainType, TerrainExtensionInfo> terrainExtensions;
-    private final static HashMap<String, BufferedImage> icons;
+    // Część zleconych obrazów, które zostały już wczytane (od 0 do 1).
+    public static float getLoadingProgress() {
+        synchronized (pendingContent) {
+            if (pendingContent.isEmpty()) { return 1f; }
+            int done = 0;
+            for (Future<?> future : pendingContent) {
+                if (future.isDone()) { ++done; }
+            }
+            return (float)done / pendingContent.size();
+        }
+    }
+
+    public static boolean isContentLoaded() { return getLoadingProgress() >= 1f; }
+
+    private final static int RGB_MASK = 0x00ffffff;
+
+    private final static HashMap<TileSelectionTag, Future<BufferedImage>> tileSelections;
+    private final static HashMap<TerrainType, Future<BufferedImage>> terrain;
+    private final static HashMap<TerrainType, Future<TerrainExtensionInfo>> terrainExtensions;
+    private final static HashMap<String, Future<BufferedImage>> icons;
     private final static HashMap<String, Model> models;
     private final static HashMap<String, Model> modelTextureBases;
 
-    private final static HashMap<TribePath, BufferedImage> animalsDefault;
-    private final static HashMap<TribePath, BufferedImage> animalsHover;
-    private final static HashMap<TribePath, BufferedImage> animalsCompleted;
+    private final static HashMap<TribePath, Future<BufferedImage>> animalsDefault;
+    private final static HashMap<TribePath, Future<BufferedImage>> animalsHover;
+    private final static HashMap<TribePath, Future<BufferedImage>> animalsCompleted;
+
+    private final static ConcurrentHashMap<TintedTextureKey, Future<BufferedImage>> tintedTextureBases = new ConcurrentHashMap<>();
+    private final static ConcurrentHashMap<ScaledImageKey, BufferedImage> scaledImages = new ConcurrentHashMap<>();
+    private final static ConcurrentHashMap<ScaledImageKey, Sprite> sprites = new ConcurrentHashMap<>();
+    private final static TextureAtlas atlas = new TextureAtlas(Configuration.TEXTURE_ATLAS_SIZE);
+
+    private final static ExecutorService loader;
+    private final static List<Future<?>> pendingContent;
 
     // TODO: Kolejna mapa?
     public final static BufferedImage borderTopLeft;
@@ -84,6 +158,13 @@ public final class ContentManager {
     public static final BufferedImage iconFrame;
 
     static {
+        loader = Executors.newFixedThreadPool(Configuration.CONTENT_LOADING_THREADS, task -> {
+            Thread thread = new Thread(task, "content-loader");
+            thread.setDaemon(true);
+            return thread;
+        });
+        pendingContent = new ArrayList<>();
+
         tileSelections = new HashMap<>();
         terrain = new HashMap<>();
         terrainExtensions = new HashMap<>();
@@ -119,24 +200,30 @@ public final class ContentManager {
     }
 
     private static void loadIcons() {
-        icons.put(Configuration.ATTACK_ACTION_ICON_NAME, loadImage("content/icons/attack.png"));
-        icons.put(Configuration.BUILD_ACTION_ICON_NAME, loadImage("content/icons/build.png"));
-        icons.put(Configuration.CANCEL_ICON_NAME, loadImage("content/icons/cancel.png"));
-        icons.put(Configuration.NEXT_UNIT_ICON_NAME, loadImage("content/icons/next-unit.png"));
-        icons.put(Configuration.TRIBE_PATHS_ICON_NAME, loadImage("content/icons/tribe-paths.png"));
-        icons.put(Configuration.EXIT_BUILDING_ICON_NAME, loadImage("content/icons/exit-building.png"));
-
-        icons.put("SkillArmorBonus", loadImage("content/icons/armor.png"));
-        icons.put("SkillEnterBuilding", loadImage("content/icons/enter-building.png"));
-        icons.put("SkillHeal", loadImage("content/icons/heal.png"));
-        icons.put("SkillOrder", loadImage("content/icons/order.png"));
-        icons.put("SkillRepair", loadImage("content/icons/repair.png"));
-        icons.put("SkillThunderStrike", loadImage("content/icons/thunder-strike.png"));
-        icons.put("SkillWarCry", loadImage("content/icons/war-cry.png"));
+        icons.put(Configuration.ATTACK_ACTION_ICON_NAME, deferImage("content/icons/attack.png"));
+        icons.put(Configuration.BUILD_ACTION_ICON_NAME, deferImage("content/icons/build.png"));
+        icons.put(Configuration.CANCEL_ICON_NAME, deferImage("content/icons/cancel.png"));
+        icons.put(Configuration.NEXT_UNIT_ICON_NAME, deferImage("content/icons/next-unit.png"));
+        icons.put(Configuration.TRIBE_PATHS_ICON_NAME, deferImage("content/icons/tribe-paths.png"));
+        icons.put(Configuration.EXIT_BUILDING_ICON_NAME, deferImage("content/icons/exit-building.png"));
+
+        icons.put("SkillArmorBonus", deferImage("content/icons/armor.png"));
+        icons.put("SkillEnterBuilding", deferImage("content/icons/enter-building.png"));
+        icons.put("SkillHeal", deferImage("content/icons/heal.png"));
+        icons.put("SkillOrder", deferImage("content/icons/order.png"));
+        icons.put("SkillRepair", deferImage("content/icons/repair.png"));
+        icons.put("SkillThunderStrike", deferImage("content/icons/thunder-strike.png"));
+        icons.put("SkillWarCry", deferImage("content/icons/war-cry.png"));
     }
 
+    // Wczytuje wszystkie zasoby i czeka na zakończenie odczytu.
     public static void loadContent() {
-        // TODO: Przenieść do oddzielnego wątku? Ładować zasoby dopiero, gdy są potrzebne?
+        startLoadingContent();
+        waitForContent();
+    }
+
+    // Zleca wczytanie zasobów w tle - tekstury modeli są dostępne od razu, ale ich pobranie czeka na odczyt.
+    public static void startLoadingContent() {
         // TODO: Pamiętać, że bazowe kolory modeli wczytywane są w klasie Player.
 
         loadSelections();
@@ -146,106 +233,117 @@ public final class ContentManager {
         loadAnimals();
         loadIcons();
 
-        models.put("LimeTree", new Model(loadImage("content/obstacles/lime-tree.png")));
-        models.put("OakTree", new Model(loadImage("content/obstacles/oak-tree.png")));
-        models.put("PineTree", new Model(loadImage("content/obstacles/pine-tree.png")));
-        models.put("WillowTree", new Model(loadImage("content/obstacles/willow-tree.png")));
-        models.put("Rock", new Model(loadImage("content/obstacles/rock.png")));
-        models.put("Bridge", new Model(loadImage("content/obstacles/bridge.png")));
-        models.put("Daisy", new Model(loadImage("content/decorations/daisy.png")));
-        models.put("Thickets", new Model(loadImage("content/decorations/thickets.png")));
-        models.put("Grain", new Model(loadImage("content/decorations/grain.png")));
-        models.put("Cabbage", new Model(loadImage("content/decorations/cabbage.png")));
+        models.put("LimeTree", new Model(requestImage("content/obstacles/lime-tree.png")));
+        models.put("OakTree", new Model(requestImage("content/obstacles/oak-tree.png")));
+        models.put("PineTree", new Model(requestImage("content/obstacles/pine-tree.png")));
+        models.put("WillowTree", new Model(requestImage("content/obstacles/willow-tree.png")));
+        models.put("Rock", new Model(requestImage("content/obstacles/rock.png")));
+        models.put("Bridge", new Model(requestImage("content/obstacles/bridge.png")));
+        models.put("Daisy", new Model(requestImage("content/decorations/daisy.png")));
+        models.put("Thickets", new Model(requestImage("content/decorations/thickets.png")));
+        models.put("Grain", new Model(requestImage("content/decorations/grain.png")));
+        models.put("Cabbage", new Model(requestImage("content/decorations/cabbage.png")));
+    }
+
+    public static void waitForContent() {
+        List<Future<?>> futures;
+        synchronized (pendingContent) {
+            futures = new ArrayList<>(pendingContent);
+        }
+        for (Future<?> future : futures) {
+            await(future);
+        }
     }
 
     private static void loadSelections() {
-        BufferedImage tileSelectionBase = loadImage("content/tiles/selection.png");
-        tileSelections.put(TileSelectionTag.HOVER_NEUTRAL, createColoredBaseFromImage(tileSelectionBase,
+        Future<BufferedImage> tileSelectionBase = requestImage("content/tiles/selection.png");
+        tileSelections.put(TileSelectionTag.HOVER_NEUTRAL, createColoredBase(tileSelectionBase,
                 240, 240, 240));
-        tileSelections.put(TileSelectionTag.INACTIVE_NEGATIVE, createColoredBaseFromImage(tileSelectionBase,
+        tileSelections.put(TileSelectionTag.INACTIVE_NEGATIVE, createColoredBase(tileSelectionBase,
                 95, 0, 0));
-        tileSelections.put(TileSelectionTag.INACTIVE_POSITIVE, createColoredBaseFromImage(tileSelectionBase,
+        tileSelections.put(TileSelectionTag.INACTIVE_POSITIVE, createColoredBase(tileSelectionBase,
                 0, 95, 0));
-        tileSelections.put(TileSelectionTag.INACTIVE_ALLIED, createColoredBaseFromImage(tileSelectionBase,
+        tileSelections.put(TileSelectionTag.INACTIVE_ALLIED, createColoredBase(tileSelectionBase,
                 0, 0, 95));
-        tileSelections.put(TileSelectionTag.ACTIVE_NEGATIVE, createColoredBaseFromImage(tileSelectionBase,
+        tileSelections.put(TileSelectionTag.ACTIVE_NEGATIVE, createColoredBase(tileSelectionBase,
                 159, 0, 0));
-        tileSelections.put(TileSelectionTag.ACTIVE_POSITIVE, createColoredBaseFromImage(tileSelectionBase,
+        tileSelections.put(TileSelectionTag.ACTIVE_POSITIVE, createColoredBase(tileSelectionBase,
                 0, 191, 0));
-        tileSelections.put(TileSelectionTag.ACTIVE_ALLIED, createColoredBaseFromImage(tileSelectionBase,
+        tileSelections.put(TileSelectionTag.ACTIVE_ALLIED, createColoredBase(tileSelectionBase,
                 0, 0, 191));
-        tileSelections.put(TileSelectionTag.NOT_ACCESSIBLE, createColoredBaseFromImage(tileSelectionBase,
+        tileSelections.put(TileSelectionTag.NOT_ACCESSIBLE, createColoredBase(tileSelectionBase,
                 32, 32, 32));
-        tileSelections.put(TileSelectionTag.SELECTED, createColoredBaseFromImage(tileSelectionBase,
+        tileSelections.put(TileSelectionTag.SELECTED, createColoredBase(tileSelectionBase,
                 239, 191, 0));
     }
 
     private static void loadTerrain() {
-        terrain.put(TerrainType.None, loadImage("content/tiles/void.png"));
-        terrain.put(TerrainType.Dirt, loadImage("content/tiles/dirt.png"));
-        terrain.put(TerrainType.Grass, loadImage("content/tiles/grass.png"));
-        terrain.put(TerrainType.Water, loadImage("content/tiles/water.png"));
-        terrain.put(TerrainType.LushGrass, loadImage("content/tiles/lush-grass.png"));
-        terrain.put(TerrainType.Sand, loadImage("content/tiles/sand.png"));
-        terrain.put(TerrainType.Soil, loadImage("content/tiles/soil.png"));
-        terrain.put(TerrainType.DryGrass, loadImage("content/tiles/dry-grass.png"));
-        terrain.put(TerrainType.DarkGrass, loadImage("content/tiles/dark-grass.png"));
-
-        terrainExtensions.put(TerrainType.Dirt, new TerrainExtensionInfo(loadImage("content/tiles/dirt-extension.png")));
-        terrainExtensions.put(TerrainType.Grass, new TerrainExtensionInfo(loadImage("content/tiles/grass-extension.png")));
-        terrainExtensions.put(TerrainType.LushGrass, new TerrainExtensionInfo(loadImage("content/tiles/lush-grass-extension.png")));
-        terrainExtensions.put(TerrainType.Sand, new TerrainExtensionInfo(loadImage("content/tiles/sand-extension.png")));
-        terrainExtensions.put(TerrainType.Soil, new TerrainExtensionInfo(loadImage("content/tiles/soil-extension.png")));
-        terrainExtensions.put(TerrainType.DryGrass, new TerrainExtensionInfo(loadImage("content/tiles/dry-grass-extension.png")));
-        terrainExtensions.put(TerrainType.DarkGrass, new TerrainExtensionInfo(loadImage("content/tiles/dark-grass-extension.png")));
+        terrain.put(TerrainType.None, requestImage("content/tiles/void.png"));
+        terrain.put(TerrainType.Dirt, requestImage("content/tiles/dirt.png"));
+        terrain.put(TerrainType.Grass, requestImage("content/tiles/grass.png"));
+        terrain.put(TerrainType.Water, requestImage("content/tiles/water.png"));
+        terrain.put(TerrainType.LushGrass, requestImage("content/tiles/lush-grass.png"));
+        terrain.put(TerrainType.Sand, requestImage("content/tiles/sand.png"));
+        terrain.put(TerrainType.Soil, requestImage("content/tiles/soil.png"));
+        terrain.put(TerrainType.DryGrass, requestImage("content/tiles/dry-grass.png"));
+        terrain.put(TerrainType.DarkGrass, requestImage("content/tiles/dark-grass.png"));
+
+        terrainExtensions.put(TerrainType.Dirt, request(() -> new TerrainExtensionInfo(loadImage("content/tiles/dirt-extension.png"))));
+        terrainExtensions.put(TerrainType.Grass, request(() -> new TerrainExtensionInfo(loadImage("content/tiles/grass-extension.png"))));
+        terrainExtensions.put(TerrainType.LushGrass, request(() -> new TerrainExtensionInfo(loadImage("content/tiles/lush-grass-extension.png"))));
+        terrainExtensions.put(TerrainType.Sand, request(() -> new TerrainExtensionInfo(loadImage("content/tiles/sand-extension.png"))));
+        terrainExtensions.put(TerrainType.Soil, request(() -> new TerrainExtensionInfo(loadImage("content/tiles/soil-extension.png"))));
+        terrainExtensions.put(TerrainType.DryGrass, request(() -> new TerrainExtensionInfo(loadImage("content/tiles/dry-grass-extension.png"))));
+        terrainExtensions.put(TerrainType.DarkGrass, request(() -> new TerrainExtensionInfo(loadImage("content/tiles/dark-grass-extension.png"))));
     }
 
     private static void loadUnits() {
-        models.put("Bowman", new Model(loadImage("content/units/bowman.png")));
-        models.put("Hero", new Model(loadImage("content/units/hero.png")));
-        models.put("Rider", new Model(loadImage("content/units/rider.png")));
-        models.put("Volkhv", new Model(loadImage("content/units/volkhv.png")));
-        models.put("Warrior", new Model(loadImage("content/units/warrior.png")));
-        models.put("Worker", new Model(loadImage("content/units/worker.png")));
-
-        modelTextureBases.put("Bowman", new Model(loadImage("content/units/bowman-base.png")));
-        modelTextureBases.put("Hero", new Model(loadImage("content/units/hero-base.png")));
-        modelTextureBases.put("Rider", new Model(loadImage("content/units/rider-base.png")));
-        modelTextureBases.put("Volkhv", new Model(loadImage("content/units/volkhv-base.png")));
-        modelTextureBases.put("Warrior", new Model(loadImage("content/units/warrior-base.png")));
-        modelTextureBases.put("Worker", new Model(loadImage("content/units/worker-base.png")));
-
-        icons.put("Bowman", loadImage("content/icons/bowman.png"));
-        icons.put("Hero", loadImage("content/icons/hero.png"));
-        icons.put("Rider", loadImage("content/icons/rider.png"));
-        icons.put("Volkhv", loadImage("content/icons/volkhv.png"));
-        icons.put("Warrior", loadImage("content/icons/warrior.png"));
-        icons.put("Worker", loadImage("content/icons/worker.png"));
+        models.put("Bowman", new Model(requestImage("content/units/bowman.png")));
+        models.put("Hero", new Model(requestImage("content/units/hero.png")));
+        models.put("Rider", new Model(requestImage("content/units/rider.png")));
+        models.put("Volkhv", new Model(requestImage("content/units/volkhv.png")));
+        models.put("Warrior", new Model(requestImage("content/units/warrior.png")));
+        models.put("Worker", new Model(requestImage("content/units/worker.png")));
+
+        modelTextureBases.put("Bowman", new Model(requestImage("content/units/bowman-base.png")));
+        modelTextureBases.put("Hero", new Model(requestImage("content/units/hero-base.png")));
+        modelTextureBases.put("Rider", new Model(requestImage("content/units/rider-base.png")));
+        modelTextureBases.put("Volkhv", new Model(requestImage("content/units/volkhv-base.png")));
+        modelTextureBases.put("Warrior", new Model(requestImage("content/units/warrior-base.png")));
+        modelTextureBases.put("Worker", new Model(requestImage("content/units/worker-base.png")));
+
+        icons.put("Bowman", deferImage("content/icons/bowman.png"));
+        icons.put("Hero", deferImage("content/icons/hero.png"));
+        icons.put("Rider", deferImage("content/icons/rider.png"));
+        icons.put("Volkhv", deferImage("content/icons/volkhv.png"));
+        icons.put("Warrior", deferImage("content/icons/warrior.png"));
+        icons.put("Worker", deferImage("content/icons/worker.png"));
     }
 
+    // Stany budowy są potrzebne rzadko, więc wczytywane są dopiero przy pierwszym użyciu.
     private static void loadBuildings() {
 
         Model barracks = new Model();
-        barracks.addState(ObjectState.NORMAL, loadImage("content/buildings/barracks.png"));
-        barracks.addState(ObjectState.CONSTRUCTION_EARLY, loadImage("content/buildings/barracks-b0.png"));
-        barracks.addState(ObjectState.CONSTRUCTION_LATE, loadImage("content/buildings/barracks-b1.png"));
+        barracks.addState(ObjectState.NORMAL, requestImage("content/buildings/barracks.png"));
+        barracks.addState(ObjectState.CONSTRUCTION_EARLY, deferImage("content/buildings/barracks-b0.png"));
+        barracks.addState(ObjectState.CONSTRUCTION_LATE, deferImage("content/buildings/barracks-b1.png"));
 
         Model chram = new Model();
-        chram.addState(ObjectState.NORMAL, loadImage("content/buildings/chram.png"));
-        chram.addState(ObjectState.CONSTRUCTION_EARLY, loadImage("content/buildings/chram-b0.png"));
-        chram.addState(ObjectState.CONSTRUCTION_LATE, loadImage("content/buildings/chram-b1.png"));
+        chram.addState(ObjectState.NORMAL, requestImage("content/buildings/chram.png"));
+        chram.addState(ObjectState.CONSTRUCTION_EARLY, deferImage("content/buildings/chram-b0.png"));
+        chram.addState(ObjectState.CONSTRUCTION_LATE, deferImage("content/buildings/chram-b1.png"));
 
         Model farm = new Model();
-        farm.addState(ObjectState.NORMAL, loadImage("content/buildings/farm.png"));
-        farm.addState(ObjectState.CONSTRUCTION_EARLY, loadImage("content/buildings/farm-b0.png"));
+        farm.addState(ObjectState.NORMAL, requestImage("content/buildings/farm.png"));
+        farm.addState(ObjectState.CONSTRUCTION_EARLY, deferImage("content/buildings/farm-b0.png"));
 
         Model gord = new Model();
-        gord.addState(ObjectState.NORMAL, loadImage("content/buildings/gord.png"));
+        gord.addState(ObjectState.NORMAL, requestImage("content/buildings/gord.png"));
 
         Model tower = new Model();
-        tower.addState(ObjectState.NORMAL, loadImage("content/buildings/tower.png"));
-        tower.addState(ObjectState.CONSTRUCTION_EARLY, loadImage("content/buildings/tower-b0.png"));
-        tower.addState(ObjectState.CONSTRUCTION_LATE, loadImage("content/buildings/tower-b1.png"));
+        tower.addState(ObjectState.NORMAL, requestImage("content/buildings/tower.png"));
+        tower.addState(ObjectState.CONSTRUCTION_EARLY, deferImage("content/buildings/tower-b0.png"));
+        tower.addState(ObjectState.CONSTRUCTION_LATE, deferImage("content/buildings/tower-b1.png"));
 
         models.put("Barracks", barracks);
         models.put("Chram", chram);
@@ -254,26 +352,26 @@ public final class ContentManager {
         models.put("Tower", tower);
 
         Model barracksBase = new Model();
-        barracksBase.addState(ObjectState.NORMAL, loadImage("content/buildings/barracks-base.png"));
-        barracksBase.addState(ObjectState.CONSTRUCTION_EARLY, loadImage("content/buildings/barracks-b0-base.png"));
-        barracksBase.addState(ObjectState.CONSTRUCTION_LATE, loadImage("content/buildings/barracks-b1-base.png"));
+        barracksBase.addState(ObjectState.NORMAL, requestImage("content/buildings/barracks-base.png"));
+        barracksBase.addState(ObjectState.CONSTRUCTION_EARLY, deferImage("content/buildings/barracks-b0-base.png"));
+        barracksBase.addState(ObjectState.CONSTRUCTION_LATE, deferImage("content/buildings/barracks-b1-base.png"));
 
         Model chramBase = new Model();
-        chramBase.addState(ObjectState.NORMAL, loadImage("content/buildings/chram-base.png"));
-        chramBase.addState(ObjectState.CONSTRUCTION_EARLY, loadImage("content/buildings/chram-b0-base.png"));
-        chramBase.addState(ObjectState.CONSTRUCTION_LATE, loadImage("content/buildings/chram-b1-base.png"));
+        chramBase.addState(ObjectState.NORMAL, requestImage("content/buildings/chram-base.png"));
+        chramBase.addState(ObjectState.CONSTRUCTION_EARLY, deferImage("content/buildings/chram-b0-base.png"));
+        chramBase.addState(ObjectState.CONSTRUCTION_LATE, deferImage("content/buildings/chram-b1-base.png"));
 
         Model farmBase = new Model();
-        farmBase.addState(ObjectState.NORMAL, loadImage("content/buildings/farm-base.png"));
-        farmBase.addState(ObjectState.CONSTRUCTION_EARLY, loadImage("content/buildings/farm-b0-base.png"));
+        farmBase.addState(ObjectState.NORMAL, requestImage("content/buildings/farm-base.png"));
+        farmBase.addState(ObjectState.CONSTRUCTION_EARLY, deferImage("content/buildings/farm-b0-base.png"));
 
         Model gordBase = new Model();
-        gordBase.addState(ObjectState.NORMAL, loadImage("content/buildings/gord-base.png"));
+        gordBase.addState(ObjectState.NORMAL, requestImage("content/buildings/gord-base.png"));
 
         Model towerBase = new Model();
-        towerBase.addState(ObjectState.NORMAL, loadImage("content/buildings/tower-base.png"));
-        towerBase.addState(ObjectState.CONSTRUCTION_EARLY, loadImage("content/buildings/tower-b0-base.png"));
-        towerBase.addState(ObjectState.CONSTRUCTION_LATE, loadImage("content/buildings/tower-b1-base.png"));
+        towerBase.addState(ObjectState.NORMAL, requestImage("content/buildings/tower-base.png"));
+        towerBase.addState(ObjectState.CONSTRUCTION_EARLY, deferImage("content/buildings/tower-b0-base.png"));
+        towerBase.addState(ObjectState.CONSTRUCTION_LATE, deferImage("content/buildings/tower-b1-base.png"));
 
         modelTextureBases.put("Barracks", barracksBase);
         modelTextureBases.put("Chram", chramBase);
@@ -281,34 +379,76 @@ public final class ContentManager {
         modelTextureBases.put("Gord", gordBase);
         modelTextureBases.put("Tower", towerBase);
 
-        icons.put("Barracks", loadImage("content/icons/barracks.png"));
-        icons.put("Chram", loadImage("content/icons/chram.png"));
-        icons.put("Farm", loadImage("content/icons/farm.png"));
-        icons.put("Gord", loadImage("content/icons/gord.png"));
-        icons.put("Tower", loadImage("content/icons/tower.png"));
+        icons.put("Barracks", deferImage("content/icons/barracks.png"));
+        icons.put("Chram", deferImage("content/icons/chram.png"));
+        icons.put("Farm", deferImage("content/icons/farm.png"));
+        icons.put("Gord", deferImage("content/icons/gord.png"));
+        icons.put("Tower", deferImage("content/icons/tower.png"));
     }
 
     private static void loadAnimals() {
-        animalsDefault.put(TribePath.Bear, loadImage("content/animals/bear-default.png"));
-        animalsHover.put(TribePath.Bear, loadImage("content/animals/bear-active.png"));
-        animalsCompleted.put(TribePath.Bear, loadImage("content/animals/bear-completed.png"));
-        animalsDefault.put(TribePath.Fox, loadImage("content/animals/fox-default.png"));
-        animalsHover.put(TribePath.Fox, loadImage("content/animals/fox-active.png"));
-        animalsCompleted.put(TribePath.Fox, loadImage("content/animals/fox-completed.png"));
-        animalsDefault.put(TribePath.Deer, loadImage("content/animals/deer-default.png"));
-        animalsHover.put(TribePath.Deer, loadImage("content/animals/deer-active.png"));
-        animalsCompleted.put(TribePath.Deer, loadImage("content/animals/deer-completed.png"));
-        animalsDefault.put(TribePath.Owl, loadImage("content/animals/owl-default.png"));
-        animalsHover.put(TribePath.Owl, loadImage("content/animals/owl-active.png"));
-        animalsCompleted.put(TribePath.Owl, loadImage("content/animals/owl-completed.png"));
-        animalsDefault.put(TribePath.Wolf, loadImage("content/animals/wolf-default.png"));
-        animalsHover.put(TribePath.Wolf, loadImage("content/animals/wolf-active.png"));
-        animalsCompleted.put(TribePath.Wolf, loadImage("content/animals/wolf-completed.png"));
+        animalsDefault.put(TribePath.Bear, deferImage("content/animals/bear-default.png"));
+        animalsHover.put(TribePath.Bear, deferImage("content/animals/bear-active.png"));
+        animalsCompleted.put(TribePath.Bear, deferImage("content/animals/bear-completed.png"));
+        animalsDefault.put(TribePath.Fox, deferImage("content/animals/fox-default.png"));
+        animalsHover.put(TribePath.Fox, deferImage("content/animals/fox-active.png"));
+        animalsCompleted.put(TribePath.Fox, deferImage("content/animals/fox-completed.png"));
+        animalsDefault.put(TribePath.Deer, deferImage("content/animals/deer-default.png"));
+        animalsHover.put(TribePath.Deer, deferImage("content/animals/deer-active.png"));
+        animalsCompleted.put(TribePath.Deer, deferImage("content/animals/deer-completed.png"));
+        animalsDefault.put(TribePath.Owl, deferImage("content/animals/owl-default.png"));
+        animalsHover.put(TribePath.Owl, deferImage("content/animals/owl-active.png"));
+        animalsCompleted.put(TribePath.Owl, deferImage("content/animals/owl-completed.png"));
+        animalsDefault.put(TribePath.Wolf, deferImage("content/animals/wolf-default.png"));
+        animalsHover.put(TribePath.Wolf, deferImage("content/animals/wolf-active.png"));
+        animalsCompleted.put(TribePath.Wolf, deferImage("content/animals/wolf-completed.png"));
+    }
+
+    // Zleca wykonanie zadania w tle. Zadanie, które jeszcze czeka na wolny wątek, wykona pierwszy wątek, który go potrzebuje.
+    private static <T> Future<T> request(Callable<T> task) {
+        FutureTask<T> future = new FutureTask<>(task);
+        synchronized (pendingContent) {
+            pendingContent.add(future);
+        }
+        loader.execute(future);
+        return future;
+    }
+
+    private static Future<BufferedImage> requestImage(String path) {
+        return request(() -> loadImage(path));
     }
 
+    // Obraz wczytywany dopiero przy pierwszym pobraniu.
+    private static Future<BufferedImage> deferImage(String path) {
+        return new FutureTask<>(() -> loadImage(path));
+    }
+
+    private static Future<BufferedImage> createColoredBase(Future<BufferedImage> image, int red, int green, int blue) {
+        return new FutureTask<>(() -> createColoredBaseFromImage(await(image), red, green, blue));
+    }
+
+    // Zwraca wynik, w razie potrzeby czekając na niego. Niezlecone jeszcze zadanie wykonywane jest od razu.
+    public static <T> T await(Future<T> future) {
+        if (future == null) { return null; }
+        if (!future.isDone() && future instanceof FutureTask) {
+            ((FutureTask<T>)future).run(); // Nic nie robi, jeśli zadanie jest już wykonywane
+        }
+        try {
+            return future.get();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        catch (ExecutionException e) {
+            e.printStackTrace();
+        }
+        return null;
+    }
+
+    // Obraz wczytany z pliku jest od razu przepisywany do formatu zgodnego z ekranem.
     private static BufferedImage loadImage(String path) {
         try {
-            return ImageIO.read(new File(path));
+            return toCompatibleImage(ImageIO.read(new File(path)));
         }
         catch (IOException e) {
             System.err.println(path);
@@ -317,10 +457,26 @@ public final class ContentManager {
         }
     }
 
+    // Kopia obrazu, w której czarne piksele zamieniane są na podany kolor.
     public static BufferedImage createColoredBaseFromImage(BufferedImage image, int red, int green, int blue) {
-        image = copyImage(image);
-        changeColor(image,0,0,0, red, green, blue);
-        return image;
+        return createColoredBasesFromImage(image, Collections.singletonList(new Color(red, green, blue)))[0];
+    }
+
+    /* Kopie obrazu dla kilku kolorów naraz - piksele źródła odczytywane (i ewentualnie konwertowane) są tylko raz,
+     * a wynik zapisywany jest bezpośrednio do tablicy obrazu ARGB, zaraz po jej utworzeniu. */
+    public static BufferedImage[] createColoredBasesFromImage(BufferedImage image, List<Color> colors) {
+        int w = image.getWidth();
+        int h = image.getHeight();
+        int[] source = getPixels(image);
+
+        BufferedImage[] results = new BufferedImage[colors.size()];
+        for (int k = 0; k < results.length; ++k) {
+            BufferedImage result = new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB);
+            int[] target = ((DataBufferInt)result.getRaster().getDataBuffer()).getData();
+            replaceColor(source, target, 0, colors.get(k).getRGB() & RGB_MASK); // Zamieniany jest kolor czarny
+            results[k] = toCompatibleImage(result);
+        }
+        return results;
     }
 
     public static BufferedImage tintImage(BufferedImage image, int red, int green, int blue) {
@@ -334,27 +490,161 @@ public final class ContentManager {
         return img;
     }
 
+    /* Zamienia kolor pikseli, zachowując ich przezroczystość. Obrazy ARGB i RGB zmieniane są bezpośrednio
+     * w tablicy pikseli, pozostałe przez konwersję getRGB / setRGB. */
     public static void changeColor(BufferedImage imgBuf, int oldRed, int oldGreen, int oldBlue,
             int newRed, int newGreen, int newBlue) {
 
-        int RGB_MASK = 0x00ffffff;
-        int ALPHA_MASK = 0xff000000;
-
         int oldRGB = oldRed << 16 | oldGreen << 8 | oldBlue;
-        int toggleRGB = oldRGB ^ (newRed << 16 | newGreen << 8 | newBlue);
+        int newRGB = newRed << 16 | newGreen << 8 | newBlue;
+
+        if (hasIntPixels(imgBuf)) {
+            replaceColor(((DataBufferInt)imgBuf.getRaster().getDataBuffer()).getData(), oldRGB, newRGB);
+            return;
+        }
 
         int w = imgBuf.getWidth();
         int h = imgBuf.getHeight();
 
         int[] rgb = imgBuf.getRGB(0, 0, w, h, null, 0, w);
-        for (int i = 0; i < rgb.length; i++) {
-            if ((rgb[i] & RGB_MASK) == oldRGB) {
-                rgb[i] ^= toggleRGB;
-            }
-        }
+        replaceColor(rgb, oldRGB, newRGB);
         imgBuf.setRGB(0, 0, w, h, rgb, 0, w);
     }
 
+    private static void replaceColor(int[] argb, int oldRGB, int newRGB) {
+        replaceColor(argb, argb, oldRGB, newRGB);
+    }
+
+    // Pętla bez rozgałęzień (maska zamiast warunku), którą kompilator JIT może zamienić na instrukcje wektorowe.
+    private static void replaceColor(int[] source, int[] target, int oldRGB, int newRGB) {
+        int toggleRGB = oldRGB ^ newRGB;
+        for (int i = 0; i < source.length; i++) {
+            int pixel = source[i];
+            target[i] = pixel ^ (toggleRGB & ((pixel & RGB_MASK) == oldRGB ? -1 : 0));
+        }
+    }
+
+    // Piksele obrazu w formacie ARGB - dla obrazu ARGB jest to jego własna tablica (bez kopiowania).
+    private static int[] getPixels(BufferedImage image) {
+        if (image.getType() == BufferedImage.TYPE_INT_ARGB) {
+            return ((DataBufferInt)image.getRaster().getDataBuffer()).getData();
+        }
+        int w = image.getWidth();
+        return image.getRGB(0, 0, w, image.getHeight(), null, 0, w);
+    }
+
+    // Jeden piksel na element tablicy int, bez przemnożonej przezroczystości i bez przesunięć w rastrze.
+    private static boolean hasIntPixels(BufferedImage image) {
+        int type = image.getType();
+        return (type == BufferedImage.TYPE_INT_ARGB || type == BufferedImage.TYPE_INT_RGB)
+                && image.getRaster().getDataBuffer().getNumBanks() == 1
+                && image.getRaster().getParent() == null;
+    }
+
+    // Obraz w formacie zgodnym z ekranem (rysowanie bez konwersji pikseli). Bez ekranu zwracany jest zwykły obraz ARGB.
+    public static BufferedImage createCompatibleImage(int width, int height, int transparency) {
+        if (!GraphicsEnvironment.isHeadless()) {
+            GraphicsConfiguration configuration = GraphicsEnvironment.getLocalGraphicsEnvironment()
+                    .getDefaultScreenDevice().getDefaultConfiguration();
+            return configuration.createCompatibleImage(width, height, transparency);
+        }
+        return new BufferedImage(width, height, transparency == Transparency.OPAQUE ?
+                BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB);
+    }
+
+    public static BufferedImage toCompatibleImage(BufferedImage image) {
+        if (image == null) { return null; }
+        BufferedImage result = createCompatibleImage(image.getWidth(), image.getHeight(), image.getTransparency());
+        if (result.getColorModel().equals(image.getColorModel())) { return image; }
+        Graphics2D g = result.createGraphics();
+        g.drawImage(image, 0, 0, null);
+        g.dispose();
+        return result;
+    }
+
+    /* Tekstura przeskalowana do rozmiaru, w jakim jest rysowana (ujemna szerokość - odbicie lustrzane).
+     * Przeskalowane obrazy są zapamiętywane, więc rysowanie sprowadza się do kopiowania bez skalowania. */
+    public static BufferedImage getScaledImage(BufferedImage image, int width, int height) {
+        if (image == null || (width == image.getWidth() && height == image.getHeight())) { return image; }
+        if (width == 0 || height <= 0) { return null; }
+        return scaledImages.computeIfAbsent(new ScaledImageKey(image, width, height), key -> scaleImage(image, width, height));
+    }
+
+    /* Tekstura obiektu w docelowym rozmiarze, umieszczona w arkuszu tekstur przy pierwszym użyciu.
+     * Dzięki temu obiekty na mapie rysowane są z kilku arkuszy zamiast z setek osobnych obrazów. */
+    public static Sprite getSprite(BufferedImage image, int width, int height) {
+        if (image == null || width == 0 || height <= 0) { return null; }
+        return sprites.computeIfAbsent(new ScaledImageKey(image, width, height), key -> atlas.add(
+                width == image.getWidth() && height == image.getHeight() ? image : scaleImage(image, width, height)));
+    }
+
+    public static int getAtlasSheetsCount() { return atlas.getSheetsCount(); }
+
+    private static BufferedImage scaleImage(BufferedImage image, int width, int height) {
+        int absWidth = Math.abs(width);
+        BufferedImage result = createCompatibleImage(absWidth, height, image.getTransparency());
+        Graphics2D g = result.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+        if (width < 0) {
+            g.drawImage(image, absWidth, 0, -absWidth, height, null);
+        }
+        else {
+            g.drawImage(image, 0, 0, width, height, null);
+        }
+        g.dispose();
+        return result;
+    }
+
+    // Tekstury są unikalne dla modelu i stanu (oraz koloru gracza), więc wystarczy porównywać referencje.
+    private static final class ScaledImageKey {
+        private final BufferedImage image;
+        private final int width;
+        private final int height;
+
+        ScaledImageKey(BufferedImage image, int width, int height) {
+            this.image = image;
+            this.width = width;
+            this.height = height;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof ScaledImageKey)) { return false; }
+            ScaledImageKey other = (ScaledImageKey)o;
+            return image == other.image && width == other.width && height == other.height;
+        }
+
+        @Override
+        public int hashCode() {
+            return (System.identityHashCode(image) * 31 + width) * 31 + height;
+        }
+    }
+
+    private static final class TintedTextureKey {
+        private final String textureBaseName;
+        private final ObjectState state;
+        private final Color color;
+
+        TintedTextureKey(String textureBaseName, ObjectState state, Color color) {
+            this.textureBaseName = textureBaseName;
+            this.state = state;
+            this.color = color;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof TintedTextureKey)) { return false; }
+            TintedTextureKey other = (TintedTextureKey)o;
+            return textureBaseName.equals(other.textureBaseName) && state == other.state && color.equals(other.color);
+        }
+
+        @Override
+        public int hashCode() {
+            return (textureBaseName.hashCode() * 31 + state.hashCode()) * 31 + color.getRGB();
+        }
+    }
+
     public static BufferedImage copyImage(BufferedImage source){
         BufferedImage b = new BufferedImage(source.getWidth(), source.getHeight(), source.getType());
         Graphics2D g = b.createGraphics();
@@ -0,0 +1,31 @@
+package swarogi.common;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+
+// Fragment arkusza tekstur zawierający jeden obraz w docelowym rozmiarze.
+public final class Sprite {
+
+    private final BufferedImage sheet;
+    private final int x;
+    private final int y;
+    private final int width;
+    private final int height;
+
+    Sprite(BufferedImage sheet, int x, int y, int width, int height) {
+        this.sheet = sheet;
+        this.x = x;
+        this.y = y;
+        this.width = width;
+        this.height = height;
+    }
+
+    public BufferedImage getSheet() { return sheet; }
+    public int getWidth() { return width; }
+    public int getHeight() { return height; }
+
+    // Kopiuje fragment arkusza (bez skalowania) tak, aby jego lewy górny róg znalazł się w (dx, dy).
+    public void draw(Graphics g, int dx, int dy) {
+        g.drawImage(sheet, dx, dy, dx + width, dy + height, x, y, x + width, y + height, null);
+    }
+}
@@ -0,0 +1,65 @@
+package swarogi.common;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+
+/* Arkusze tekstur, do których dopisywane są kolejne obrazy (układane w rzędach, od lewej do prawej).
+ * Obiekty rysowane są z kilku dużych obrazów zamiast z osobnego obrazu dla każdej tekstury.
+ * Obraz większy niż arkusz dostaje własny arkusz. */
+public final class TextureAtlas {
+
+    private static final int PADDING = 1;
+
+    private final int sheetSize;
+    private final List<BufferedImage> sheets;
+    private BufferedImage currentSheet;
+    private int shelfX;
+    private int shelfY;
+    private int shelfHeight;
+
+    public TextureAtlas(int sheetSize) {
+        this.sheetSize = sheetSize;
+        this.sheets = new ArrayList<>();
+    }
+
+    public synchronized Sprite add(BufferedImage image) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+
+        if (width + PADDING > sheetSize || height + PADDING > sheetSize) {
+            BufferedImage sheet = ContentManager.createCompatibleImage(width, height, Transparency.TRANSLUCENT);
+            sheets.add(sheet);
+            return copy(image, sheet, 0, 0);
+        }
+
+        if (currentSheet != null && shelfX + width + PADDING > sheetSize) { // Następny rząd
+            shelfX = 0;
+            shelfY += shelfHeight;
+            shelfHeight = 0;
+        }
+        if (currentSheet == null || shelfY + height + PADDING > sheetSize) { // Następny arkusz
+            currentSheet = ContentManager.createCompatibleImage(sheetSize, sheetSize, Transparency.TRANSLUCENT);
+            sheets.add(currentSheet);
+            shelfX = 0;
+            shelfY = 0;
+            shelfHeight = 0;
+        }
+
+        Sprite sprite = copy(image, currentSheet, shelfX, shelfY);
+        shelfX += width + PADDING;
+        shelfHeight = Math.max(shelfHeight, height + PADDING);
+        return sprite;
+    }
+
+    public synchronized int getSheetsCount() { return sheets.size(); }
+
+    private static Sprite copy(BufferedImage image, BufferedImage sheet, int x, int y) {
+        Graphics2D g = sheet.createGraphics();
+        g.setComposite(AlphaComposite.Src);
+        g.drawImage(image, x, y, null);
+        g.dispose();
+        return new Sprite(sheet, x, y, image.getWidth(), image.getHeight());
+    }
+}
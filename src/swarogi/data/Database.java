@@ -53,6 +53,10 @@ public final class Database {
     public static EffectData RestoreActionPoints;
     public static EffectData EnterBuildingEffect;
 
+    public static EffectData[] Effects;   // Efekty według identyfikatora
+    public static int SkillsCount;
+    public static int UpgradesCount;
+
     public static Map<TribePath, ReseachData> TribePaths;
     public static Map<Integer, ObstacleData> Obstacles;
     public static Map<Integer, DecorationData> Decorations;
@@ -60,8 +64,12 @@ public final class Database {
     public static void initialize() {
 
         int id = 0;
+        int effectId = 0;
+        int skillId = 0;
+        int upgradeId = 0;
 
         ValueEffectData bleeding = new ValueEffectData();
+        bleeding.setId(effectId++);
         bleeding.setName("Krwawienie");
         bleeding.setDescription("TODO");
         bleeding.setDuration(4);
@@ -69,6 +77,7 @@ public final class Database {
         Bleeding = bleeding;
 
         EffectData stunned = new EffectData();
+        stunned.setId(effectId++);
         stunned.setName("Ogłuszenie");
         stunned.setDescription("TODO");
         stunned.setDuration(1);
@@ -76,6 +85,7 @@ public final class Database {
         Stunned = stunned;
 
         EffectData restoreActionPoints = new EffectData();
+        restoreActionPoints.setId(effectId++);
         restoreActionPoints.setName("Przywróć punkty akcji");
         restoreActionPoints.setDescription("TODO");
         restoreActionPoints.setDuration(0);
@@ -83,6 +93,7 @@ public final class Database {
         RestoreActionPoints = restoreActionPoints;
 
         ValueEffectData regeneration = new ValueEffectData();
+        regeneration.setId(effectId++);
         regeneration.setName("Regeneracja");
         regeneration.setDescription("TODO");
         regeneration.setDuration(4);
@@ -90,6 +101,7 @@ public final class Database {
         Regeneration = regeneration;
 
         ValueEffectData damageBonus = new ValueEffectData();
+        damageBonus.setId(effectId++);
         damageBonus.setName("Zwiększone obrażenia");
         damageBonus.setDescription("TODO");
         damageBonus.setDuration(2);
@@ -97,6 +109,7 @@ public final class Database {
         HeroSkillDamageBonus = damageBonus;
 
         ValueEffectData armorBonus = new ValueEffectData();
+        armorBonus.setId(effectId++);
         armorBonus.setName("Zwiększony pancerz");
         armorBonus.setDescription("TODO");
         armorBonus.setDuration(3);
@@ -104,15 +117,20 @@ public final class Database {
         VolkhvSkillArmorBonus = armorBonus;
 
         EffectData enterBuildingEffect = new EffectData();
+        enterBuildingEffect.setId(effectId++);
         enterBuildingEffect.setName("Wejdź do budynku (efekt)");
         enterBuildingEffect.setDescription("TODO");
         enterBuildingEffect.setDuration(0);
         enterBuildingEffect.setInstant(true);
         EnterBuildingEffect = enterBuildingEffect;
 
+        Effects = new EffectData[] { bleeding, stunned, restoreActionPoints, regeneration, damageBonus, armorBonus,
+                enterBuildingEffect };
+
 
 
         SkillData enterBuilding = new SkillData();
+        enterBuilding.setId(skillId++);
         enterBuilding.setName("Pracuj");
         enterBuilding.setIconName("SkillEnterBuilding");
         enterBuilding.setDescription("Wyślij robotnika do Chaty, aby umożliwić mu zbieranie Żywności oraz Drewna z pobliskich pól.");
@@ -128,6 +146,7 @@ public final class Database {
         enterBuilding.setPositiveFlag(true);
 
         SkillData heroDamageBonus = new SkillData();
+        heroDamageBonus.setId(skillId++);
         heroDamageBonus.setName("Krzyk bojowy");
         heroDamageBonus.setIconName("SkillWarCry");
         heroDamageBonus.setDescription("Na 2 tury zwiększa o 2 obrażenia zadawane przez naziemne, sojusznicze jednostki w zasięgu 5 pól.");
@@ -145,6 +164,7 @@ public final class Database {
         heroDamageBonus.setRequirement(TribePath.Bear, 3);
 
         SkillData heroReplenishActionPoints = new SkillData();
+        heroReplenishActionPoints.setId(skillId++);
         heroReplenishActionPoints.setName("Rozkaz dowódcy");
         heroReplenishActionPoints.setIconName("SkillOrder");
         heroReplenishActionPoints.setDescription("Pozwala pobliskiej, sojuszniczej jednostce kolejny raz wykonać akcję w tej turze.");
@@ -165,6 +185,7 @@ public final class Database {
         heroReplenishActionPoints.setRequirement(TribePath.Owl, 3);
 
         SkillData volkhvArmorBonus = new SkillData();
+        volkhvArmorBonus.setId(skillId++);
         volkhvArmorBonus.setName("Pancerz Swaroga");
         volkhvArmorBonus.setIconName("SkillArmorBonus");
         volkhvArmorBonus.setDescription("Zwiększa pancerz wybranej, pobliskiej, sojusznicej jednostki o 3 na 3 tury.");
@@ -184,6 +205,7 @@ public final class Database {
         volkhvArmorBonus.setRequirement(TribePath.Deer, 3);
 
         SkillData thunderStrike = new SkillData();
+        thunderStrike.setId(skillId++);
         thunderStrike.setName("Gniew Peruna");
         thunderStrike.setIconName("SkillThunderStrike");
         thunderStrike.setDescription("Zadaje 25-32 obrażeń wybranej, pobliskiej, wrogiej jednostce. Zapewnia 50% szansy, że cel zostanie ogłuszony.");
@@ -206,6 +228,7 @@ public final class Database {
         thunderStrike.setRequirement(TribePath.Wolf, 3);
 
         SkillData volkhvRegeneration = new SkillData();
+        volkhvRegeneration.setId(skillId++);
         volkhvRegeneration.setName("Łaska Mokoszy");
         volkhvRegeneration.setIconName("SkillHeal");
         volkhvRegeneration.setDescription("Sprawia, że pobliska, wybrana, sojusznicza jednostka przez następne 3 tury będzie odzyskiwać 5 punktów zdrowia.");
@@ -222,12 +245,15 @@ public final class Database {
         volkhvRegeneration.addTarget(TargetType.Living);
         volkhvRegeneration.addTarget(TargetType.Ground);
 
+        SkillsCount = skillId;
+
         //.setIconName("SkillExitBuilding");
         //.setIconName("SkillRepair");
 
 
 
         IncreasedMeeleDamage = new UpgradeData(); // Premia procentowa
+        IncreasedMeeleDamage.setId(upgradeId++);
         IncreasedMeeleDamage.setDescription("Zwiększa obrażenia zadawane przez Wojowników i Jeźdźców o {value}%. ");
         IncreasedMeeleDamage.addValue(10);
         IncreasedMeeleDamage.addValue(20);
@@ -236,6 +262,7 @@ public final class Database {
         IncreasedMeeleDamage.addValue(50);
 
         IncreasedMeleeBleeding = new UpgradeData(); // Dodatkowe punkty procentowe
+        IncreasedMeleeBleeding.setId(upgradeId++);
         IncreasedMeleeBleeding.setDescription("Zapewnia szansę {value}%, że ataki zadawane przez Wojowników i Jeźdźców wywołają efekt Krwawienia. ");
         IncreasedMeleeBleeding.addValue(10);
         IncreasedMeleeBleeding.addValue(20);
@@ -244,6 +271,7 @@ public final class Database {
         IncreasedMeleeBleeding.addValue(50);
 
         IncreasedUnitHealth = new UpgradeData(); // Premia procentowa
+        IncreasedUnitHealth.setId(upgradeId++);
         IncreasedUnitHealth.setDescription("Zwiększa maksymalne punkty wytrzymałości jednostek o {value}%. ");
         IncreasedUnitHealth.addValue(10);
         IncreasedUnitHealth.addValue(20);
@@ -252,6 +280,7 @@ public final class Database {
         IncreasedUnitHealth.addValue(50);
 
         IncreasedActionPoints = new UpgradeData(); // Wartość
+        IncreasedActionPoints.setId(upgradeId++);
         IncreasedActionPoints.setDescription("Zwiększa maksymalną liczbę punktów akcji o {value}. ");
         IncreasedActionPoints.addValue(1);
         IncreasedActionPoints.addValue(2);
@@ -260,6 +289,7 @@ public final class Database {
         IncreasedActionPoints.addValue(5);
 
         IncreasedMovement = new UpgradeData(); // Wartość
+        IncreasedMovement.setId(upgradeId++);
         IncreasedMovement.setDescription("Zwiększa maksymalny zasięg ruchu o: {value} pól. ");
         IncreasedMovement.addValue(1);
         IncreasedMovement.addValue(2);
@@ -268,35 +298,42 @@ public final class Database {
         IncreasedMovement.addValue(5);
 
         IncreasedUnitArmor = new UpgradeData(); // Wartość
+        IncreasedUnitArmor.setId(upgradeId++);
         IncreasedUnitArmor.setDescription("Zwiększa pancerz Wojowników, Strzelców oraz Jeźdźców o {value}. ");
         IncreasedUnitArmor.addValue(1);
         IncreasedUnitArmor.addValue(2);
         IncreasedUnitArmor.addValue(3);
 
         IncreasedBleedingDamage = new UpgradeData();  // Premia procentowa
+        IncreasedBleedingDamage.setId(upgradeId++);
         IncreasedBleedingDamage.setDescription("Efekt krwawienia będzie powodował utratę większej liczby punktów wytrzymałości. ");
         IncreasedBleedingDamage.addValue(150);
         IncreasedBleedingDamage.addValue(200);
         IncreasedBleedingDamage.addValue(300);
 
         IncreasedRangedDamage = new UpgradeData(); // Premia procentowa
+        IncreasedRangedDamage.setId(upgradeId++);
         IncreasedRangedDamage.setDescription("Zwiększa obrażenia zadawane przez pociski Strzelców o {value}%. ");
         IncreasedRangedDamage.addValue(10);
         IncreasedRangedDamage.addValue(20);
         IncreasedRangedDamage.addValue(30);
 
         IncreasedResources = new UpgradeData(); // Premia procentowa
+        IncreasedResources.setId(upgradeId++);
         IncreasedResources.setDescription("Zwiększa ilość uzyskiwanych surowców o{value}%. ");
         IncreasedResources.addValue(10);
         IncreasedResources.addValue(20);
         IncreasedResources.addValue(30);
 
         IncreasedRegeneration = new UpgradeData();  // Premia procentowa
+        IncreasedRegeneration.setId(upgradeId++);
         IncreasedRegeneration.setDescription("Jednostki, które nie wykonały ruchu w poprzedniej turze będą odzyskiwać część wytrzymałości. ");
         IncreasedRegeneration.addValue(100);
         IncreasedRegeneration.addValue(150);
         IncreasedRegeneration.addValue(200);
 
+        UpgradesCount = upgradeId;
+
 
 
         ReseachData bearTribePath = new ReseachData();
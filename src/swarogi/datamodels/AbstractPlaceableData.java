@@ -6,6 +6,7 @@ import swarogi.enums.TerrainType;
 import swarogi.interfaces.PlaceableData;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 public abstract class AbstractPlaceableData implements PlaceableData {
@@ -20,6 +21,7 @@ public abstract class AbstractPlaceableData implements PlaceableData {
     private PlacingType placingType;
     private TerrainType newTerrainType;
     private List<Characteristic> characteristics;
+    private long characteristicsMask;
 
     public AbstractPlaceableData() {
         this.xScale = 1.0f;
@@ -65,7 +67,14 @@ public abstract class AbstractPlaceableData implements PlaceableData {
     public void setInducedTerrainType(TerrainType value) { this.newTerrainType = value; }
 
     @Override
-    public List<Characteristic> getCharacteristics() { return this.characteristics; }
-    public boolean hasCharacteristic(Characteristic characteristic) { return this.characteristics.contains(characteristic); }
-    public void addCharacteristic(Characteristic characteristic) { this.characteristics.add(characteristic); }
+    public List<Characteristic> getCharacteristics() { return Collections.unmodifiableList(this.characteristics); }
+    @Override
+    public long getCharacteristicsMask() { return this.characteristicsMask; }
+    public boolean hasCharacteristic(Characteristic characteristic) {
+        return (this.characteristicsMask & characteristic.getMask()) != 0;
+    }
+    public void addCharacteristic(Characteristic characteristic) {
+        this.characteristics.add(characteristic);
+        this.characteristicsMask |= characteristic.getMask();
+    }
 }
@@ -6,6 +6,7 @@ import swarogi.enums.TargetType;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 public class AttackData {
@@ -16,6 +17,7 @@ public class AttackData {
     private int minDamage;
     private int maxDamage;
     private List<TargetType> allowedTargets;
+    private TargetRules targetRules;
 
     public AttackData(AttackType attackType, DamageType damageType, int minDamage, int maxDamage, int minDistance, int maxDistance, TargetType... targetTypes) {
         this.attackType = attackType;
@@ -26,6 +28,7 @@ public class AttackData {
         this.maxDistance = maxDistance;
         this.allowedTargets = new ArrayList<>();
         this.allowedTargets.addAll(Arrays.asList(targetTypes));
+        this.targetRules = TargetRules.compile(allowedTargets);
     }
 
     public AttackType getAttackType() { return this.attackType; }
@@ -34,5 +37,6 @@ public class AttackData {
     public int getMaxDistance() { return this.maxDistance; }
     public int getMinDamage() { return this.minDamage; }
     public int getMaxDamage() { return this.maxDamage; }
-    public List<TargetType> getAllowedTargets() { return allowedTargets; }
+    public List<TargetType> getAllowedTargets() { return Collections.unmodifiableList(allowedTargets); }
+    public TargetRules getTargetRules() { return targetRules; }
 }
@@ -2,11 +2,15 @@ package swarogi.datamodels;
 
 public class EffectData {
 
+    private int id;                 // Kolejny numer efektu (0, 1, 2...) - indeks w tablicach efektów jednostek
     private String name;
     private String description;
     private boolean instant;
     private int duration;
 
+    public int getId() { return id; }
+    public void setId(int id) { this.id = id; }
+
     public String getName() { return name; }
     public void setName(String name) { this.name = name; }
 
@@ -1,31 +1,69 @@
 package swarogi.datamodels;
 
+import swarogi.common.ContentManager;
 import swarogi.enums.ObjectState;
 
 import java.awt.image.BufferedImage;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
 
+/* Tekstury modelu dla poszczególnych stanów. Tekstury mogą być jeszcze wczytywane (w tle)
+ * lub wczytywane dopiero przy pierwszym użyciu - wtedy pobranie tekstury czeka na jej odczyt. */
 public class Model {
-    private Map<ObjectState, BufferedImage> textures;
+    private Map<ObjectState, Future<BufferedImage>> textures;
 
     public Model() {
         textures = new HashMap<>();
     }
 
     public Model(BufferedImage defaultTexture) {
+        this(CompletableFuture.completedFuture(defaultTexture));
+    }
+
+    public Model(Future<BufferedImage> defaultTexture) {
         textures = new HashMap<>();
         textures.put(ObjectState.NORMAL, defaultTexture);
     }
 
     public void addState(ObjectState state, BufferedImage texture) {
+        addState(state, CompletableFuture.completedFuture(texture));
+    }
+
+    public void addState(ObjectState state, Future<BufferedImage> texture) {
         textures.put(state, texture);
     }
 
     public BufferedImage getTexture(ObjectState state) {
         if (textures.containsKey(state)) {
-            return textures.get(state);
+            return getImage(textures.get(state));
+        }
+        return getImage(textures.getOrDefault(ObjectState.NORMAL, null));
+    }
+
+    public Set<ObjectState> getStates() { return Collections.unmodifiableSet(textures.keySet()); }
+
+    // Największe rozmiary tekstur spośród wszystkich stanów (do wyznaczania obszaru zajmowanego przez obiekt).
+    public int getMaxWidth() {
+        int result = 0;
+        for (Future<BufferedImage> future : textures.values()) {
+            BufferedImage texture = getImage(future);
+            if (texture != null) { result = Math.max(result, texture.getWidth()); }
+        }
+        return result;
+    }
+
+    public int getMaxHeight() {
+        int result = 0;
+        for (Future<BufferedImage> future : textures.values()) {
+            BufferedImage texture = getImage(future);
+            if (texture != null) { result = Math.max(result, texture.getHeight()); }
         }
-        return textures.getOrDefault(ObjectState.NORMAL, null);
+        return result;
     }
+
+    private static BufferedImage getImage(Future<BufferedImage> future) { return ContentManager.await(future); }
 }
@@ -4,10 +4,12 @@ import swarogi.enums.TargetType;
 import swarogi.enums.TribePath;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 public class SkillData {
 
+    private int id;                 // Kolejny numer umiejętności (0, 1, 2...) - indeks w tablicach czasów odnowienia
     private String name;
     private String description;
     private String iconName;
@@ -18,6 +20,7 @@ public class SkillData {
     private int minDamage;
     private int maxDamage;
     private List<TargetType> allowedTargets;
+    private TargetRules targetRules;
     private int minDistance;
     private int maxDistance;
     private boolean approachTargetFlag;
@@ -32,8 +35,12 @@ public class SkillData {
 
     public SkillData() {
         this.allowedTargets = new ArrayList<>();
+        this.targetRules = TargetRules.compile(allowedTargets);
     }
 
+    public int getId() { return id; }
+    public void setId(int id) { this.id = id; }
+
     public String getName() { return name; }
     public void setName(String name) { this.name = name; }
 
@@ -61,8 +68,12 @@ public class SkillData {
     public int getMaxDamage() { return maxDamage; }
     public void setMaxDamage(int maxDamage) { this.maxDamage = maxDamage; }
 
-    public List<TargetType> getAllowedTargets() { return allowedTargets; }
-    public void addTarget(TargetType targetType) { this.allowedTargets.add(targetType); }
+    public List<TargetType> getAllowedTargets() { return Collections.unmodifiableList(allowedTargets); }
+    public TargetRules getTargetRules() { return targetRules; }
+    public void addTarget(TargetType targetType) {
+        this.allowedTargets.add(targetType);
+        this.targetRules = TargetRules.compile(allowedTargets);
+    }
 
     public int getMinDistance() { return minDistance; }
     public void setMinDistance(int minDistance) { this.minDistance = minDistance; }
@@ -0,0 +1,76 @@
+package swarogi.datamodels;
+
+import swarogi.enums.Characteristic;
+import swarogi.enums.TargetType;
+
+import java.util.Collection;
+import java.util.EnumSet;
+
+/* Reguły wyboru celu skompilowane z listy typów celów do masek bitowych cech (Characteristic).
+ * Warunki sprawdzane są w tej samej kolejności, co wcześniej kolejne wywołania contains na liście. */
+public final class TargetRules {
+
+    private final EnumSet<TargetType> targetTypes;
+    private final boolean self;
+    private final boolean nonSelf;
+    private final boolean enemy;
+    private final boolean ally;
+    private final boolean playerUnit;
+    private final long requiredCharacteristics;  // Cechy, które cel musi mieć (zniszczalność)
+    private final long movementCharacteristics;  // Cel musi mieć przynajmniej jedną z nich (rodzaj ruchu)
+    private final long excludedCharacteristics;  // Cechy wykluczające cel (NonLeader)
+    private final long leaderCharacteristics;    // Cechy, które od razu dopuszczają cel (Leader)
+    private final long workerCharacteristics;    // Cechy wymagane od pozostałych celów (Worker)
+    private final long kindCharacteristics;      // Cel musi mieć przynajmniej jedną z nich (rodzaj celu)
+
+    private TargetRules(EnumSet<TargetType> targetTypes) {
+        this.targetTypes = targetTypes;
+        this.self = targetTypes.contains(TargetType.Self);
+        this.nonSelf = targetTypes.contains(TargetType.NonSelf);
+        this.enemy = targetTypes.contains(TargetType.Enemy);
+        this.ally = targetTypes.contains(TargetType.Ally);
+        this.playerUnit = targetTypes.contains(TargetType.PlayerUnit);
+        this.requiredCharacteristics = mask(TargetType.Destructible, Characteristic.Destructible)
+                | mask(TargetType.Indestructible, Characteristic.Indestructible);
+        this.movementCharacteristics = mask(TargetType.Ground, Characteristic.Ground)
+                | mask(TargetType.Flying, Characteristic.Flying)
+                | mask(TargetType.Water, Characteristic.Water);
+        this.excludedCharacteristics = mask(TargetType.NonLeader, Characteristic.Leader);
+        this.leaderCharacteristics = mask(TargetType.Leader, Characteristic.Leader);
+        this.workerCharacteristics = mask(TargetType.Worker, Characteristic.Worker);
+        this.kindCharacteristics = mask(TargetType.Living, Characteristic.Living)
+                | mask(TargetType.Building, Characteristic.Building)
+                | mask(TargetType.Machine, Characteristic.Machine);
+    }
+
+    public static TargetRules compile(Collection<TargetType> targetTypes) {
+        EnumSet<TargetType> set = EnumSet.noneOf(TargetType.class);
+        set.addAll(targetTypes);
+        return new TargetRules(set);
+    }
+
+    public boolean contains(TargetType targetType) { return targetTypes.contains(targetType); }
+
+    /* isSelf - cel jest jednostką wybierającą, isSameTeam / isSameOwner - cel należy do tej samej drużyny / gracza,
+     * characteristics - maska cech celu (AbstractPlaceableData.getCharacteristicsMask). */
+    public boolean matches(boolean isSelf, boolean isSameTeam, boolean isSameOwner, long characteristics) {
+        // Samonamierzalność i przynależność
+        if (self && !isSelf || nonSelf && isSelf) { return false; }
+        if (enemy && isSameTeam || ally && !isSameTeam || playerUnit && !isSameOwner) { return false; }
+
+        // Zniszczalność, ruch i wykluczona grupa jednostek
+        if ((characteristics & requiredCharacteristics) != requiredCharacteristics) { return false; }
+        if ((characteristics & movementCharacteristics) == 0) { return false; }
+        if ((characteristics & excludedCharacteristics) != 0) { return false; }
+
+        // Przywódca jest dopuszczany przed sprawdzeniem pozostałych kryteriów
+        if ((characteristics & leaderCharacteristics) != 0) { return true; }
+        if ((characteristics & workerCharacteristics) != workerCharacteristics) { return false; }
+
+        return (characteristics & kindCharacteristics) != 0;
+    }
+
+    private long mask(TargetType targetType, Characteristic characteristic) {
+        return targetTypes.contains(targetType) ? characteristic.getMask() : 0L;
+    }
+}
@@ -1,18 +1,25 @@
 package swarogi.datamodels;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
 
 public class UpgradeData {
-    private List<Object> values;
+    private int id;             // Kolejny numer rozwinięcia (0, 1, 2...) - indeks w tablicy poziomów rozwinięć gracza
+    private int[] values;       // Wartości rozwinięcia na kolejnych poziomach
     private String description;
 
     public UpgradeData() {
-        this.values = new ArrayList<>();
+        this.values = new int[0];
     }
 
-    public void addValue(Object value) { values.add(value); }
-    public Object getValue(int level) { return values.get(level); }
+    public int getId() { return id; }
+    public void setId(int id) { this.id = id; }
+
+    public void addValue(int value) {
+        values = Arrays.copyOf(values, values.length + 1);
+        values[values.length - 1] = value;
+    }
+    public int getValue(int level) { return values[level]; }
+    public int getLevelsCount() { return values.length; }
 
     public void setDescription(String description) { this.description = description; }
     public String getDescription() { return this.description; }
@@ -0,0 +1,211 @@
+package swarogi.engine;
+
+import swarogi.data.Database;
+import swarogi.datamodels.DecorationData;
+import swarogi.datamodels.ObstacleData;
+import swarogi.enums.TerrainType;
+import swarogi.game.GameMap;
+import swarogi.game.Tile;
+import swarogi.interfaces.Placeable;
+import swarogi.models.Decoration;
+import swarogi.models.Obstacle;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/* Binarny format mapy:
+ *   nagłówek - znacznik "SWMP", wersja, liczba pól w poziomie i pionie, liczba graczy, przeszkód i dekoracji,
+ *   pozycje graczy (x, y),
+ *   typy terenu - jeden bajt na pole, wierszami (indeks y * tilesX + x),
+ *   przeszkody (id, x, y) oraz dekoracje (id, x, y, przesunięcie x, przesunięcie y).
+ * Wszystkie liczby poza nagłówkiem i terenem zapisane są jako short. */
+public final class BinaryMapLoader {
+
+    public static final String EXTENSION = ".smap";
+
+    private static final int MAGIC = 0x53574D50; // "SWMP"
+    private static final short VERSION = 1;
+    private static final int HEADER_SIZE = 4 + 2 + 4 * 5;
+    private static final int PLAYER_SIZE = 2 * 2;
+    private static final int OBSTACLE_SIZE = 3 * 2;
+    private static final int DECORATION_SIZE = 5 * 2;
+
+    public static boolean isBinaryMap(String path) { return path.endsWith(EXTENSION); }
+
+    public static GameMap readMap(String path) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(path), StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+            if (buffer.remaining() < HEADER_SIZE || buffer.getInt() != MAGIC) {
+                throw new MapFormatException(0, "plik nie jest binarną mapą");
+            }
+            short version = buffer.getShort();
+            if (version != VERSION) {
+                throw new MapFormatException(0, "nieobsługiwana wersja mapy " + version);
+            }
+            int tilesX = buffer.getInt();
+            int tilesY = buffer.getInt();
+            int players = buffer.getInt();
+            int obstacles = buffer.getInt();
+            int decorations = buffer.getInt();
+
+            long expectedSize = (long)HEADER_SIZE + (long)players * PLAYER_SIZE + (long)tilesX * tilesY
+                    + (long)obstacles * OBSTACLE_SIZE + (long)decorations * DECORATION_SIZE;
+            if (tilesX <= 0 || tilesY <= 0 || players < 0 || obstacles < 0 || decorations < 0
+                    || expectedSize != channel.size()) {
+                throw new MapFormatException(0, "uszkodzony plik mapy");
+            }
+
+            GameMap map = new GameMap(tilesX, tilesY);
+            List<Tile> playerPositions = new ArrayList<>(players);
+            for (int i = 0; i < players; ++i) {
+                playerPositions.add(readTile(buffer, map));
+            }
+
+            // Teren odczytywany jest bezpośrednio z odwzorowanego pliku
+            TerrainType[] terrainTypes = TerrainType.values();
+            for (int y = 0; y < tilesY; ++y) {
+                for (int x = 0; x < tilesX; ++x) {
+                    int terrain = buffer.get() & 0xFF;
+                    if (terrain >= terrainTypes.length) {
+                        throw new MapFormatException(0, "nieznany typ terenu " + terrain + " na polu (" + x + ", " + y + ")");
+                    }
+                    map.getTile(x, y).setTerrainType(terrainTypes[terrain]);
+                }
+            }
+
+            for (Tile tile : playerPositions) {
+                map.addPlayerPosition(tile);
+            }
+
+            for (int i = 0; i < obstacles; ++i) {
+                int id = buffer.getShort();
+                Tile tile = readTile(buffer, map);
+                ObstacleData model = Database.Obstacles.get(id);
+                if (model == null) { throw new MapFormatException(0, "nieznany model przeszkody " + id); }
+                map.tryPlace(new Obstacle(model), tile);
+            }
+
+            for (int i = 0; i < decorations; ++i) {
+                int id = buffer.getShort();
+                Tile tile = readTile(buffer, map);
+                int translationX = buffer.getShort();
+                int translationY = buffer.getShort();
+                DecorationData model = Database.Decorations.get(id);
+                if (model == null) { throw new MapFormatException(0, "nieznany model dekoracji " + id); }
+                map.tryPlace(new Decoration(model, translationX, translationY), tile);
+            }
+
+            return map;
+        }
+    }
+
+    public static void saveMap(GameMap map, String fileName) {
+        int tilesX = map.getTilesX(), tilesY = map.getTilesY();
+
+        List<Tile> playerPositions = map.getPlayerPositions();
+        List<Obstacle> obstacles = new ArrayList<>();
+        List<Decoration> decorations = new ArrayList<>();
+        for (Placeable placeable : map.getPlaceables()) {
+            if (placeable instanceof Obstacle) {
+                obstacles.add((Obstacle)placeable);
+            }
+            else if (placeable instanceof Decoration) {
+                decorations.add((Decoration)placeable);
+            }
+        }
+
+        try (FileChannel channel = FileChannel.open(Paths.get(fileName), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+
+            ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + playerPositions.size() * PLAYER_SIZE + tilesX * tilesY
+                    + obstacles.size() * OBSTACLE_SIZE + decorations.size() * DECORATION_SIZE);
+
+            buffer.putInt(MAGIC);
+            buffer.putShort(VERSION);
+            buffer.putInt(tilesX);
+            buffer.putInt(tilesY);
+            buffer.putInt(playerPositions.size());
+            buffer.putInt(obstacles.size());
+            buffer.putInt(decorations.size());
+
+            for (Tile tile : playerPositions) {
+                putShort(buffer, tile.getIdX());
+                putShort(buffer, tile.getIdY());
+            }
+
+            for (int y = 0; y < tilesY; ++y) {
+                for (int x = 0; x < tilesX; ++x) {
+                    buffer.put((byte)map.getTile(x, y).getTerrainType().getValue());
+                }
+            }
+
+            for (Obstacle obstacle : obstacles) {
+                Tile tile = obstacle.getTile();
+                putShort(buffer, obstacle.getPlaceableData().getId());
+                putShort(buffer, tile.getIdX());
+                putShort(buffer, tile.getIdY());
+            }
+
+            for (Decoration decoration : decorations) {
+                Tile tile = decoration.getTile();
+                putShort(buffer, decoration.getPlaceableData().getId());
+                putShort(buffer, tile.getIdX());
+                putShort(buffer, tile.getIdY());
+                putShort(buffer, decoration.getCustomTranslationX());
+                putShort(buffer, decoration.getCustomTranslationY());
+            }
+
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+        catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    // Przepisuje mapę z formatu tekstowego do binarnego.
+    public static boolean convert(String textPath, String binaryPath) {
+        GameMap map = MapLoader.loadMap(textPath);
+        if (map == null) { return false; }
+        saveMap(map, binaryPath);
+        return true;
+    }
+
+    // Użycie: BinaryMapLoader mapa.txt mapa.smap
+    public static void main(String[] args) {
+        if (args.length != 2) {
+            System.out.println("Użycie: BinaryMapLoader <mapa tekstowa> <mapa binarna>");
+            return;
+        }
+        Database.initialize();
+        if (convert(args[0], args[1])) {
+            System.out.println("Zapisano " + args[1]);
+        }
+    }
+
+    private static Tile readTile(ByteBuffer buffer, GameMap map) throws MapFormatException {
+        int x = buffer.getShort();
+        int y = buffer.getShort();
+        Tile tile = map.getTile(x, y);
+        if (tile == null) {
+            throw new MapFormatException(0, "pole (" + x + ", " + y + ") poza mapą");
+        }
+        return tile;
+    }
+
+    private static void putShort(ByteBuffer buffer, int value) throws IOException {
+        if (value < Short.MIN_VALUE || value > Short.MAX_VALUE) {
+            throw new IOException("Wartość " + value + " nie mieści się w formacie mapy.");
+        }
+        buffer.putShort((short)value);
+    }
+}
@@ -0,0 +1,18 @@
+package swarogi.engine;
+
+import java.io.IOException;
+
+// Błąd w zapisie mapy - zawiera numer linii (lub 0, jeśli błąd nie dotyczy konkretnej linii).
+public class MapFormatException extends IOException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int lineNumber;
+
+    public MapFormatException(int lineNumber, String message) {
+        super(lineNumber > 0 ? "Linia " + lineNumber + ": " + message : message);
+        this.lineNumber = lineNumber;
+    }
+
+    public int getLineNumber() { return lineNumber; }
+}
@@ -0,0 +1,386 @@
+package swarogi.engine;
+
+import swarogi.common.Configuration;
+import swarogi.data.Database;
+import swarogi.datamodels.DecorationData;
+import swarogi.datamodels.ObstacleData;
+import swarogi.enums.TerrainType;
+import swarogi.game.GameMap;
+import swarogi.models.Decoration;
+import swarogi.models.Obstacle;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.stream.IntStream;
+
+/* Losowa mapa o dowolnym rozmiarze (dla danego ziarna zawsze ta sama):
+ *   teren wyznaczany z szumu - jeziora i rzeki, piaszczyste brzegi, rodzaje trawy zależne od wilgotności,
+ *   lasy skupione w kępy jednego gatunku, pojedyncze głazy, rozrzucone dekoracje,
+ *   mosty w miejscach, gdzie rzeka ma szerokość dwóch pól, pozycje startowe graczy na oczyszczonych polanach.
+ * Teren i obiekty wyznaczane są równolegle dla fragmentów mapy. Mapa przechowywana jest w tablicach
+ * (indeks x * tilesY + y), więc nawet bardzo duże mapy można zapisać bez tworzenia obiektów pól. */
+public final class MapGenerator {
+
+    private static final int CHUNK_SIZE = 64;
+    private static final int PLAYER_CLEARING_RADIUS = 4;
+
+    private static final int NONE = 0;
+
+    private final int tilesX;
+    private final int tilesY;
+    private final long seed;
+
+    private final byte[] terrain;
+    private final short[] obstacles;       // Id modelu przeszkody (0 - brak)
+    private final short[] decorations;     // Id modelu dekoracji (0 - brak)
+    private final byte[] translations;     // Przesunięcie dekoracji (x, y)
+    private final int[] playerPositions;   // Indeksy pól
+
+    private final short[] trees;
+    private final short rock;
+    private final short bridge;
+    private final short[] meadowDecorations;
+    private final short thickets;
+
+    public MapGenerator(int tilesX, int tilesY, int players, long seed) {
+        if (tilesX <= 0 || tilesY <= 0) {
+            throw new IllegalArgumentException("Niepoprawny rozmiar mapy: " + tilesX + "x" + tilesY);
+        }
+        this.tilesX = tilesX;
+        this.tilesY = tilesY;
+        this.seed = seed;
+
+        int count = tilesX * tilesY;
+        this.terrain = new byte[count];
+        this.obstacles = new short[count];
+        this.decorations = new short[count];
+        this.translations = new byte[count * 2];
+
+        this.trees = new short[] { id(Database.OakTree), id(Database.WillowTree), id(Database.PineTree), id(Database.LimeTree) };
+        this.rock = id(Database.Rock);
+        this.bridge = id(Database.Bridge);
+        this.meadowDecorations = new short[] { id(Database.Daisy), id(Database.Daisy), id(Database.Cabbage), id(Database.Grain) };
+        this.thickets = id(Database.Thickets);
+
+        int chunksX = (tilesX + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        int chunksY = (tilesY + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        IntStream.range(0, chunksX * chunksY).parallel().forEach(chunk ->
+                generateChunk(chunk / chunksY * CHUNK_SIZE, chunk % chunksY * CHUNK_SIZE));
+
+        placeBridges();
+        this.playerPositions = placePlayers(Math.max(0, Math.min(players, Configuration.MAX_PLAYERS)));
+    }
+
+    public int getTilesX() { return tilesX; }
+    public int getTilesY() { return tilesY; }
+    public int getPlayersCount() { return playerPositions.length; }
+
+    // Tworzy mapę gry (jak przy wczytywaniu z pliku).
+    public GameMap createMap() {
+        GameMap map = new GameMap(tilesX, tilesY);
+        for (int index : playerPositions) {
+            map.addPlayerPosition(map.getTileByIndex(index));
+        }
+
+        TerrainType[] terrainTypes = TerrainType.values();
+        for (int index = 0; index < terrain.length; ++index) {
+            map.getTileByIndex(index).setTerrainType(terrainTypes[terrain[index]]);
+        }
+
+        for (int index = 0; index < obstacles.length; ++index) {
+            if (obstacles[index] != NONE) {
+                map.tryPlace(new Obstacle(Database.Obstacles.get((int)obstacles[index])), map.getTileByIndex(index));
+            }
+        }
+        for (int index = 0; index < decorations.length; ++index) {
+            if (decorations[index] != NONE) {
+                map.tryPlace(new Decoration(Database.Decorations.get((int)decorations[index]),
+                        translations[index * 2], translations[index * 2 + 1]), map.getTileByIndex(index));
+            }
+        }
+        return map;
+    }
+
+    // Zapisuje mapę w formacie tekstowym (tym samym, co MapLoader.saveMap).
+    public void write(String fileName) throws IOException {
+        try (BufferedWriter output = Files.newBufferedWriter(Paths.get(fileName), StandardCharsets.UTF_8)) {
+            MapTextWriter writer = new MapTextWriter(output);
+
+            writer.writeLine("Swarogi map file");
+
+            writer.startRecord("Size");
+            writer.writeInt(tilesX);
+            writer.writeInt(tilesY);
+            writer.endRecord();
+
+            for (int index : playerPositions) {
+                writer.startRecord("Player");
+                writer.writeInt(index / tilesY);
+                writer.writeInt(index % tilesY);
+                writer.endRecord();
+            }
+
+            TerrainType[] terrainTypes = TerrainType.values();
+            for (int index = 0; index < terrain.length; ++index) {
+                writer.startRecord("Terrain");
+                writer.writeInt(index / tilesY);
+                writer.writeInt(index % tilesY);
+                writer.writeInt(terrainTypes[terrain[index]].getValue());
+                writer.endRecord();
+            }
+
+            for (int index = 0; index < obstacles.length; ++index) {
+                if (obstacles[index] != NONE) {
+                    writer.startRecord("Obstacle");
+                    writer.writeInt(obstacles[index]);
+                    writer.writeInt(index / tilesY);
+                    writer.writeInt(index % tilesY);
+                    writer.endRecord();
+                }
+            }
+
+            for (int index = 0; index < decorations.length; ++index) {
+                if (decorations[index] != NONE) {
+                    writer.startRecord("Decoration");
+                    writer.writeInt(decorations[index]);
+                    writer.writeInt(index / tilesY);
+                    writer.writeInt(index % tilesY);
+                    writer.writeInt(translations[index * 2]);
+                    writer.writeInt(translations[index * 2 + 1]);
+                    writer.endRecord();
+                }
+            }
+        }
+    }
+
+    // Użycie: MapGenerator szerokość wysokość plik [liczba graczy] [ziarno]
+    public static void main(String[] args) {
+        if (args.length < 3) {
+            System.out.println("Użycie: MapGenerator <szerokość> <wysokość> <plik> [liczba graczy] [ziarno]");
+            return;
+        }
+        int tilesX = Integer.parseInt(args[0]);
+        int tilesY = Integer.parseInt(args[1]);
+        int players = args.length > 3 ? Integer.parseInt(args[3]) : 2;
+        long seed = args.length > 4 ? Long.parseLong(args[4]) : System.nanoTime();
+
+        Database.initialize();
+
+        long start = System.nanoTime();
+        MapGenerator generator = new MapGenerator(tilesX, tilesY, players, seed);
+        long generated = System.nanoTime();
+        try {
+            generator.write(args[2]);
+        }
+        catch (IOException e) {
+            e.printStackTrace();
+            return;
+        }
+        long written = System.nanoTime();
+
+        System.out.println(String.format("Wygenerowano mapę %dx%d (ziarno %d, graczy %d) w %d ms, zapisano w %d ms",
+                tilesX, tilesY, seed, generator.getPlayersCount(),
+                (generated - start) / 1_000_000, (written - generated) / 1_000_000));
+    }
+
+    // Teren, przeszkody i dekoracje jednego fragmentu - każde pole zależy tylko od swojego położenia.
+    private void generateChunk(int startX, int startY) {
+        int endX = Math.min(startX + CHUNK_SIZE, tilesX);
+        int endY = Math.min(startY + CHUNK_SIZE, tilesY);
+        for (int x = startX; x < endX; ++x) {
+            for (int y = startY; y < endY; ++y) {
+                int index = x * tilesY + y;
+                // Kolumny nieparzyste są przesunięte o pół pola w dół
+                float px = x * 0.75f;
+                float py = y + (x % 2) * 0.5f;
+
+                float elevation = noise(1, px / 40f, py / 40f);
+                float river = Math.abs(noise(2, px / 70f, py / 70f) - 0.5f);
+                float moisture = noise(3, px / 30f, py / 30f);
+                float forest = noise(4, px / 14f, py / 14f);
+
+                TerrainType terrainType;
+                if (elevation < 0.3f || river < 0.007f) {
+                    terrainType = TerrainType.Water;
+                }
+                else if (elevation < 0.33f || river < 0.014f) {
+                    terrainType = TerrainType.Sand;
+                }
+                else if (moisture > 0.68f) { terrainType = TerrainType.LushGrass; }
+                else if (moisture > 0.55f) { terrainType = TerrainType.DarkGrass; }
+                else if (moisture > 0.4f) { terrainType = TerrainType.Grass; }
+                else if (moisture > 0.28f) { terrainType = TerrainType.DryGrass; }
+                else if (hash(5, x, y) < 0.3f) { terrainType = TerrainType.Soil; }
+                else { terrainType = TerrainType.Dirt; }
+                terrain[index] = (byte)terrainType.ordinal();
+
+                if (terrainType == TerrainType.Water || terrainType == TerrainType.Sand) { continue; }
+
+                float roll = hash(6, x, y);
+                if (forest > 0.62f && roll < 0.8f) {
+                    // Gatunek drzewa zmienia się wolniej niż zasięg lasu - lasy są jednorodne
+                    int species = (int)(noise(7, px / 45f, py / 45f) * trees.length * 2) % trees.length;
+                    obstacles[index] = trees[species];
+                }
+                else if (terrainType == TerrainType.Dirt && roll < 0.02f) {
+                    obstacles[index] = rock;
+                }
+                else if (roll < 0.07f) {
+                    decorations[index] = forest > 0.5f || terrainType == TerrainType.Dirt ? thickets
+                            : meadowDecorations[(int)(hash(8, x, y) * meadowDecorations.length)];
+                    translations[index * 2] = (byte)(hash(9, x, y) * 61 - 30);
+                    translations[index * 2 + 1] = (byte)(hash(10, x, y) * 61 - 30);
+                }
+            }
+        }
+    }
+
+    /* Most zajmuje pole i jego prawego dolnego sąsiada. Stawiany jest tam, gdzie oba pola to woda,
+     * a przed i za nimi jest ląd - z dala od innych mostów. */
+    private void placeBridges() {
+        int spacing = 12;
+        for (int x = 0; x + 1 < tilesX; ++x) {
+            for (int y = 0; y < tilesY; ++y) {
+                int index = x * tilesY + y;
+                int partner = neighbor(x, y, 3);
+                if (partner < 0 || !isWater(index) || !isWater(partner) || obstacles[partner] != NONE) { continue; }
+                int before = neighbor(x, y, 0);
+                int after = neighbor(partner / tilesY, partner % tilesY, 3);
+                if (before < 0 || after < 0 || !isPassableLand(before) || !isPassableLand(after)) { continue; }
+                if (hash(11, x, y) < 0.5f || hasBridgeNearby(x, y, spacing)) { continue; }
+
+                obstacles[index] = bridge;
+            }
+        }
+    }
+
+    // Gracze rozstawiani są na elipsie wokół środka mapy. Okolica pozycji startowej zamieniana jest na polanę.
+    private int[] placePlayers(int players) {
+        int[] positions = new int[players];
+        double offset = hash(12, 0, 0) * Math.PI * 2;
+        for (int i = 0; i < players; ++i) {
+            double angle = offset + Math.PI * 2 * i / players;
+            int x = clamp((int)Math.round(tilesX / 2.0 + Math.cos(angle) * tilesX * 0.3), PLAYER_CLEARING_RADIUS, tilesX - 1 - PLAYER_CLEARING_RADIUS);
+            int y = clamp((int)Math.round(tilesY / 2.0 + Math.sin(angle) * tilesY * 0.3), PLAYER_CLEARING_RADIUS, tilesY - 1 - PLAYER_CLEARING_RADIUS);
+            int position = findDryArea(x, y);
+            x = position / tilesY;
+            y = position % tilesY;
+            positions[i] = position;
+
+            for (int cx = Math.max(0, x - PLAYER_CLEARING_RADIUS); cx <= Math.min(tilesX - 1, x + PLAYER_CLEARING_RADIUS); ++cx) {
+                for (int cy = Math.max(0, y - PLAYER_CLEARING_RADIUS); cy <= Math.min(tilesY - 1, y + PLAYER_CLEARING_RADIUS); ++cy) {
+                    int index = cx * tilesY + cy;
+                    terrain[index] = (byte)TerrainType.Grass.ordinal();
+                    obstacles[index] = NONE;
+                    decorations[index] = NONE;
+                }
+            }
+        }
+        // Polana mogła przeciąć most - usuń mosty, których pola nie są już wodą
+        for (int index = 0; index < obstacles.length; ++index) {
+            if (obstacles[index] == bridge) {
+                int partner = neighbor(index / tilesY, index % tilesY, 3);
+                if (!isWater(index) || partner < 0 || !isWater(partner)) { obstacles[index] = NONE; }
+            }
+        }
+        return positions;
+    }
+
+    // Najbliższe pole, wokół którego nie ma wody (polana nie powinna być wyspą). Jeśli takiego brak - podane pole.
+    private int findDryArea(int x, int y) {
+        int maxDistance = Math.max(tilesX, tilesY) / 8;
+        for (int distance = 0; distance <= maxDistance; ++distance) {
+            for (int cx = x - distance; cx <= x + distance; ++cx) {
+                for (int cy = y - distance; cy <= y + distance; ++cy) {
+                    boolean onRing = Math.abs(cx - x) == distance || Math.abs(cy - y) == distance;
+                    if (onRing && cx >= PLAYER_CLEARING_RADIUS && cx < tilesX - PLAYER_CLEARING_RADIUS
+                            && cy >= PLAYER_CLEARING_RADIUS && cy < tilesY - PLAYER_CLEARING_RADIUS && isDryArea(cx, cy)) {
+                        return cx * tilesY + cy;
+                    }
+                }
+            }
+        }
+        return x * tilesY + y;
+    }
+
+    private boolean isDryArea(int x, int y) {
+        for (int cx = x - PLAYER_CLEARING_RADIUS; cx <= x + PLAYER_CLEARING_RADIUS; ++cx) {
+            for (int cy = y - PLAYER_CLEARING_RADIUS; cy <= y + PLAYER_CLEARING_RADIUS; ++cy) {
+                if (isWater(cx * tilesY + cy)) { return false; }
+            }
+        }
+        return true;
+    }
+
+    private boolean hasBridgeNearby(int x, int y, int distance) {
+        for (int cx = Math.max(0, x - distance); cx <= x; ++cx) {
+            for (int cy = Math.max(0, y - distance); cy <= Math.min(tilesY - 1, y + distance); ++cy) {
+                if (obstacles[cx * tilesY + cy] == bridge) { return true; }
+            }
+        }
+        return false;
+    }
+
+    private boolean isWater(int index) { return terrain[index] == TerrainType.Water.ordinal(); }
+
+    private boolean isPassableLand(int index) {
+        return !isWater(index) && obstacles[index] == NONE;
+    }
+
+    // Sąsiedzi jak w GameMap: 0 - lewy górny, 1 - górny, 2 - prawy górny, 3 - prawy dolny, 4 - dolny, 5 - lewy dolny.
+    private int neighbor(int x, int y, int direction) {
+        int odd = x % 2;
+        int nx, ny;
+        switch (direction) {
+            case 0: nx = x - 1; ny = y - 1 + odd; break;
+            case 1: nx = x; ny = y - 1; break;
+            case 2: nx = x + 1; ny = y - 1 + odd; break;
+            case 3: nx = x + 1; ny = y + odd; break;
+            case 4: nx = x; ny = y + 1; break;
+            default: nx = x - 1; ny = y + odd; break;
+        }
+        if (nx < 0 || nx >= tilesX || ny < 0 || ny >= tilesY) { return -1; }
+        return nx * tilesY + ny;
+    }
+
+    // Szum wartości (trzy oktawy) w zakresie [0, 1) - zależy tylko od ziarna, warstwy i położenia.
+    private float noise(int layer, float x, float y) {
+        float result = 0f, amplitude = 0.5f, total = 0f;
+        for (int octave = 0; octave < 3; ++octave) {
+            result += valueNoise(layer * 8 + octave, x, y) * amplitude;
+            total += amplitude;
+            x *= 2f;
+            y *= 2f;
+            amplitude *= 0.5f;
+        }
+        return result / total;
+    }
+
+    private float valueNoise(int layer, float x, float y) {
+        int ix = (int)Math.floor(x);
+        int iy = (int)Math.floor(y);
+        float fx = smooth(x - ix);
+        float fy = smooth(y - iy);
+        float top = lerp(hash(layer, ix, iy), hash(layer, ix + 1, iy), fx);
+        float bottom = lerp(hash(layer, ix, iy + 1), hash(layer, ix + 1, iy + 1), fx);
+        return lerp(top, bottom, fy);
+    }
+
+    private float hash(int layer, int x, int y) {
+        long h = seed * 0x9E3779B97F4A7C15L + layer * 0xC2B2AE3D27D4EB4FL + x * 0x165667B19E3779F9L + y * 0x27D4EB2F165667C5L;
+        h = (h ^ (h >>> 31)) * 0xBF58476D1CE4E5B9L;
+        h = (h ^ (h >>> 29)) * 0x94D049BB133111EBL;
+        h ^= h >>> 32;
+        return (h >>> 40) / (float)(1 << 24);
+    }
+
+    private static float smooth(float t) { return t * t * (3 - 2 * t); }
+    private static float lerp(float a, float b, float t) { return a + (b - a) * t; }
+    private static int clamp(int value, int min, int max) { return Math.max(min, Math.min(max, value)); }
+
+    private static short id(ObstacleData model) { return (short)model.getId(); }
+    private static short id(DecorationData model) { return (short)model.getId(); }
+}
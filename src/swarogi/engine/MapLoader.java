@@ -1,6 +1,7 @@
 package swarogi.engine;
 
 import swarogi.data.Database;
+import swarogi.datamodels.DecorationData;
 import swarogi.datamodels.ObstacleData;
 import swarogi.enums.TerrainType;
 import swarogi.game.GameMap;
@@ -10,93 +11,164 @@ import swarogi.models.Decoration;
 import swarogi.models.Obstacle;
 
 import java.io.*;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 
 public final class MapLoader {
 
+    // Wczytuje mapę, a w przypadku błędu wypisuje jego opis i zwraca null.
     public static GameMap loadMap(String path) {
-        BufferedReader reader;
         try {
-            reader = new BufferedReader(new FileReader(path));
-            String line = reader.readLine();
-            line = reader.readLine();
-            String[] lineSplit = line.split(";");
-            int tilesx = Integer.parseInt(lineSplit[1]);
-            int tilesy = Integer.parseInt(lineSplit[2]);
+            return readMap(path);
+        }
+        catch (MapFormatException e) {
+            System.err.println("Niepoprawny plik mapy " + path + ". " + e.getMessage());
+        }
+        catch (IOException e) {
+            e.printStackTrace();
+        }
+        return null;
+    }
+
+    public static GameMap readMap(String path) throws IOException {
+        if (BinaryMapLoader.isBinaryMap(path)) {
+            return BinaryMapLoader.readMap(path);
+        }
+
+        try (FileChannel channel = FileChannel.open(Paths.get(path), StandardOpenOption.READ)) {
+            MapTextReader reader = new MapTextReader(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+
+            // Pierwsza linia to nagłówek, druga - rozmiar mapy
+            if (!reader.nextLine()) {
+                throw new MapFormatException(0, "pusty plik");
+            }
+            if (!reader.nextLine() || reader.readRecordType() != MapTextReader.RECORD_SIZE) {
+                throw new MapFormatException(reader.getLineNumber(), "oczekiwano rozmiaru mapy (Size)");
+            }
+            int tilesx = reader.readInt();
+            int tilesy = reader.readInt();
+            if (tilesx <= 0 || tilesy <= 0) {
+                throw new MapFormatException(reader.getLineNumber(), "niepoprawny rozmiar mapy");
+            }
             GameMap map = new GameMap(tilesx, tilesy);
 
             TerrainType[] terrainTypes = TerrainType.values();
 
-            while (line != null) {
-                lineSplit = line.split(";");
-
-                if (lineSplit[0].equals("Player")) {
-                    map.addPlayerPosition(map.getTile(Integer.parseInt(lineSplit[1]), Integer.parseInt(lineSplit[2])));
+            while (reader.nextLine()) {
+                switch (reader.readRecordType()) {
+                    case MapTextReader.RECORD_PLAYER: {
+                        map.addPlayerPosition(readTile(reader, map));
+                        break;
+                    }
+                    case MapTextReader.RECORD_TERRAIN: {
+                        Tile tile = readTile(reader, map);
+                        int terrain = reader.readInt();
+                        if (terrain < 0 || terrain >= terrainTypes.length) {
+                            throw new MapFormatException(reader.getLineNumber(), "nieznany typ terenu " + terrain);
+                        }
+                        tile.setTerrainType(terrainTypes[terrain]);
+                        break;
+                    }
+                    case MapTextReader.RECORD_OBSTACLE: {
+                        int id = reader.readInt();
+                        Tile tile = readTile(reader, map);
+                        ObstacleData model = Database.Obstacles.get(id);
+                        if (model == null) {
+                            throw new MapFormatException(reader.getLineNumber(), "nieznany model przeszkody " + id);
+                        }
+                        map.tryPlace(new Obstacle(model), tile);
+                        break;
+                    }
+                    case MapTextReader.RECORD_DECORATION: {
+                        int id = reader.readInt();
+                        Tile tile = readTile(reader, map);
+                        int translationX = reader.readInt();
+                        int translationY = reader.readInt();
+                        DecorationData model = Database.Decorations.get(id);
+                        if (model == null) {
+                            throw new MapFormatException(reader.getLineNumber(), "nieznany model dekoracji " + id);
+                        }
+                        map.tryPlace(new Decoration(model, translationX, translationY), tile);
+                        break;
+                    }
                 }
-                else if (lineSplit[0].equals("Terrain")) {
-                    map.getTile(Integer.parseInt(lineSplit[1]), Integer.parseInt(lineSplit[2]))
-                            .setTerrainType(terrainTypes[Integer.parseInt(lineSplit[3])]);
-                }
-                else if (lineSplit[0].equals("Obstacle")) {
-                    Tile tile = map.getTile(Integer.parseInt(lineSplit[2]), Integer.parseInt(lineSplit[3]));
-                    ObstacleData model = Database.Obstacles.get(Integer.parseInt(lineSplit[1]));
-                    if (model == null) { System.err.println("Model " + lineSplit[1] + " was null.\n"); }
-                    map.tryPlace(new Obstacle(model), tile);
-                }
-                else if (lineSplit[0].equals("Decoration")) {
-                    map.tryPlace(new Decoration(Database.Decorations.get(Integer.parseInt(lineSplit[1])),
-                            Integer.parseInt(lineSplit[4]), Integer.parseInt(lineSplit[5])),
-                            map.getTile(Integer.parseInt(lineSplit[2]), Integer.parseInt(lineSplit[3])));
-                }
-
-                line = reader.readLine();
             }
-            reader.close();
 
             return map;
         }
-        catch (IOException e) {
-            e.printStackTrace();
-        }
-        return null;
     }
 
     public static void saveMap(GameMap map, String fileName) {
-        BufferedWriter writer = null;
-        try {
-            writer = new BufferedWriter(new FileWriter(fileName));
+        if (BinaryMapLoader.isBinaryMap(fileName)) {
+            BinaryMapLoader.saveMap(map, fileName);
+            return;
+        }
 
-            StringBuilder sb = new StringBuilder();
+        try (BufferedWriter output = Files.newBufferedWriter(Paths.get(fileName), StandardCharsets.UTF_8)) {
+            MapTextWriter writer = new MapTextWriter(output);
 
-            sb.append("Swarogi map file\r\n");
+            writer.writeLine("Swarogi map file");
 
             int w = map.getTilesX(), h = map.getTilesY();
-            sb.append(String.format("Size;%d;%d\r\n", w, h));
+            writer.startRecord("Size");
+            writer.writeInt(w);
+            writer.writeInt(h);
+            writer.endRecord();
+
+            for (Tile tile : map.getPlayerPositions()) {
+                writer.startRecord("Player");
+                writer.writeInt(tile.getIdX());
+                writer.writeInt(tile.getIdY());
+                writer.endRecord();
+            }
 
             for (int i = 0; i < w; ++i) {
                 for (int j = 0; j < h; ++j) {
-                    sb.append(String.format("Terrain;%d;%d;%d\r\n", i, j, map.getTile(i, j).getTerrainType().getValue()));
+                    writer.startRecord("Terrain");
+                    writer.writeInt(i);
+                    writer.writeInt(j);
+                    writer.writeInt(map.getTile(i, j).getTerrainType().getValue());
+                    writer.endRecord();
                 }
             }
 
             for (Placeable placeable : map.getPlaceables()) {
                 if (placeable instanceof Obstacle) {
                     Tile tile = placeable.getTile();
-                    sb.append(String.format("Obstacle;%d;%d;%d\r\n", placeable.getPlaceableData().getId(), tile.getIdX(), tile.getIdY()));
+                    writer.startRecord("Obstacle");
+                    writer.writeInt(placeable.getPlaceableData().getId());
+                    writer.writeInt(tile.getIdX());
+                    writer.writeInt(tile.getIdY());
+                    writer.endRecord();
                 }
                 else if (placeable instanceof Decoration) {
                     Decoration decoration = (Decoration)placeable;
                     Tile tile = decoration.getTile();
-                    sb.append(String.format("Decoration;%d;%d;%d;%d;%d\r\n", decoration.getPlaceableData().getId(), tile.getIdX(), tile.getIdY(),
-                            decoration.getCustomTranslationX(), decoration.getCustomTranslationY()));
+                    writer.startRecord("Decoration");
+                    writer.writeInt(decoration.getPlaceableData().getId());
+                    writer.writeInt(tile.getIdX());
+                    writer.writeInt(tile.getIdY());
+                    writer.writeInt(decoration.getCustomTranslationX());
+                    writer.writeInt(decoration.getCustomTranslationY());
+                    writer.endRecord();
                 }
             }
-
-            writer.write(sb.toString());
-            writer.close();
         }
         catch (IOException e) {
             e.printStackTrace();
         }
     }
 
+    private static Tile readTile(MapTextReader reader, GameMap map) throws MapFormatException {
+        int x = reader.readInt();
+        int y = reader.readInt();
+        Tile tile = map.getTile(x, y);
+        if (tile == null) {
+            throw new MapFormatException(reader.getLineNumber(), "pole (" + x + ", " + y + ") poza mapą");
+        }
+        return tile;
+    }
 }
@@ -0,0 +1,114 @@
+package swarogi.engine;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/* Odczyt rekordów tekstowego formatu mapy ("Typ;liczba;liczba;...") bezpośrednio z bufora bajtów,
+ * bez tworzenia napisów dla kolejnych linii. Pomija znacznik BOM na początku pliku. */
+final class MapTextReader {
+
+    static final int RECORD_UNKNOWN = 0;
+    static final int RECORD_SIZE = 1;
+    static final int RECORD_PLAYER = 2;
+    static final int RECORD_TERRAIN = 3;
+    static final int RECORD_OBSTACLE = 4;
+    static final int RECORD_DECORATION = 5;
+
+    private static final byte[][] RECORD_NAMES = {
+            null,
+            "Size".getBytes(StandardCharsets.US_ASCII),
+            "Player".getBytes(StandardCharsets.US_ASCII),
+            "Terrain".getBytes(StandardCharsets.US_ASCII),
+            "Obstacle".getBytes(StandardCharsets.US_ASCII),
+            "Decoration".getBytes(StandardCharsets.US_ASCII),
+    };
+
+    private final ByteBuffer buffer;
+    private int lineNumber;
+    private int lineEnd;  // Pozycja końca bieżącej linii (bez znaków końca linii)
+    private int nextLine; // Pozycja początku następnej linii
+
+    MapTextReader(ByteBuffer buffer) {
+        this.buffer = buffer;
+        int position = buffer.position();
+        if (buffer.remaining() >= 3 && (buffer.get(position) & 0xFF) == 0xEF
+                && (buffer.get(position + 1) & 0xFF) == 0xBB && (buffer.get(position + 2) & 0xFF) == 0xBF) {
+            buffer.position(position + 3);
+        }
+        this.nextLine = buffer.position();
+    }
+
+    int getLineNumber() { return lineNumber; }
+
+    // Przechodzi do następnej niepustej linii. Zwraca false na końcu pliku.
+    boolean nextLine() {
+        int limit = buffer.limit();
+        while (nextLine < limit) {
+            int start = nextLine;
+            int end = start;
+            while (end < limit && buffer.get(end) != '\n') { ++end; }
+            nextLine = end < limit ? end + 1 : end;
+            ++lineNumber;
+            if (end > start && buffer.get(end - 1) == '\r') { --end; }
+            if (end > start) {
+                buffer.position(start);
+                lineEnd = end;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Rozpoznaje typ rekordu bieżącej linii (pierwsze pole).
+    int readRecordType() {
+        int start = buffer.position();
+        int end = start;
+        while (end < lineEnd && buffer.get(end) != ';') { ++end; }
+        buffer.position(end);
+
+        for (int type = 1; type < RECORD_NAMES.length; ++type) {
+            byte[] name = RECORD_NAMES[type];
+            if (name.length == end - start && matches(name, start)) {
+                return type;
+            }
+        }
+        return RECORD_UNKNOWN;
+    }
+
+    // Odczytuje kolejne pole liczbowe rekordu.
+    int readInt() throws MapFormatException {
+        int position = buffer.position();
+        if (position >= lineEnd || buffer.get(position) != ';') {
+            throw new MapFormatException(lineNumber, "brak oczekiwanego pola liczbowego");
+        }
+        ++position;
+
+        boolean negative = position < lineEnd && buffer.get(position) == '-';
+        if (negative) { ++position; }
+
+        long value = 0;
+        int digitsStart = position;
+        while (position < lineEnd) {
+            int c = buffer.get(position) - '0';
+            if (c < 0 || c > 9) { break; }
+            value = value * 10 + c;
+            if (value > Integer.MAX_VALUE) {
+                throw new MapFormatException(lineNumber, "zbyt duża liczba");
+            }
+            ++position;
+        }
+        if (position == digitsStart || (position < lineEnd && buffer.get(position) != ';')) {
+            throw new MapFormatException(lineNumber, "niepoprawna liczba");
+        }
+
+        buffer.position(position);
+        return negative ? (int)-value : (int)value;
+    }
+
+    private boolean matches(byte[] name, int start) {
+        for (int i = 0; i < name.length; ++i) {
+            if (buffer.get(start + i) != name[i]) { return false; }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,44 @@
+package swarogi.engine;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/* Zapis rekordów tekstowego formatu mapy prosto do strumienia (bez składania całego pliku w pamięci). */
+final class MapTextWriter {
+
+    private final Writer writer;
+    private final char[] digits;
+
+    MapTextWriter(Writer writer) {
+        this.writer = writer;
+        this.digits = new char[11];
+    }
+
+    void writeLine(String text) throws IOException {
+        writer.write(text);
+        writer.write("\r\n");
+    }
+
+    void startRecord(String type) throws IOException {
+        writer.write(type);
+    }
+
+    void writeInt(int value) throws IOException {
+        writer.write(';');
+        long v = value;
+        if (v < 0) {
+            writer.write('-');
+            v = -v;
+        }
+        int position = digits.length;
+        do {
+            digits[--position] = (char)('0' + v % 10);
+            v /= 10;
+        } while (v > 0);
+        writer.write(digits, position, digits.length - position);
+    }
+
+    void endRecord() throws IOException {
+        writer.write("\r\n");
+    }
+}
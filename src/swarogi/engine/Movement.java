@@ -75,6 +75,7 @@ public final class Movement {
             }
 
             placeable.onPositionChanged(newTile);
+            newTile.getMap().onPlaceableMoved(placeable);
 
             return true;
         }
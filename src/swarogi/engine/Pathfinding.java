@@ -1,6 +1,6 @@
 package swarogi.engine;
 
-import swarogi.enums.TerrainType;
+import swarogi.game.GameMap;
 import swarogi.game.Tile;
 import swarogi.interfaces.Destructible;
 
@@ -8,34 +8,46 @@ import java.util.*;
 
 public class Pathfinding {
 
+    private final GameMap map;
     private Tile origin;
     private float maxDistance;
-    private HashMap<Tile, PathfindingNodeInfo> pathfindingInfo;
-    private HashMap<Destructible, Tile> targetPathTiles;
+
+    // Odwiedzone pola w kolejności przeszukiwania (indeksy pól, odległości i pozycje poprzedników)
+    private int[] tiles;
+    private int[] distances;
+    private int[] previous;
+    private long[] lookup;                          // Posortowane pary (indeks pola, pozycja)
+    private HashMap<Destructible, Integer> targetPathTiles;
 
     public Pathfinding(Tile origin, float maxDistance) {
+        this.map = origin.getMap();
         this.origin = origin;
         this.maxDistance = maxDistance;
-        this.pathfindingInfo = new HashMap<>();
         this.targetPathTiles = new HashMap<>();
         findMeeleTargetsPaths(origin, maxDistance);
     }
 
     public boolean canAccess(Tile tile) {
-        return pathfindingInfo.containsKey(tile);
+        return findSlot(tile) >= 0;
     }
     public boolean canAccess(Destructible destructible) { return targetPathTiles.containsKey(destructible); }
 
     public int getDistanceTo(Tile tile) {
-        return pathfindingInfo.containsKey(tile) ? pathfindingInfo.get(tile).distance : -1;
+        int slot = findSlot(tile);
+        return slot >= 0 ? distances[slot] : -1;
     }
 
     public int getDistanceTo(Destructible destructible) {
-        return this.getDistanceTo(targetPathTiles.getOrDefault(destructible, null));
+        Integer slot = targetPathTiles.get(destructible);
+        return slot != null ? distances[slot] : -1;
     }
 
     public Set<Tile> getAccessibleTiles() {
-        return new HashSet<>(pathfindingInfo.keySet());
+        HashSet<Tile> result = new HashSet<>(tiles.length * 2);
+        for (int tileIndex : tiles) {
+            result.add(map.getTileByIndex(tileIndex));
+        }
+        return result;
     }
 
     public Set<Destructible> getAccessibleTargets() {
@@ -43,22 +55,38 @@ public class Pathfinding {
     }
 
     public Stack<Tile> getPathTo(Tile tile) {
-        if (!pathfindingInfo.containsKey(tile)) { return null; }
+        int slot = findSlot(tile);
+        if (slot < 0) { return null; }
+        return getPathTo(slot);
+    }
 
-        Stack<Tile> result = new Stack<>();
-        result.push(tile);
-        PathfindingNodeInfo current = pathfindingInfo.get(tile);
+    public Stack<Tile> getPathTo(Destructible destructible) {
+        Integer slot = destructible != null ? targetPathTiles.get(destructible) : null;
+        if (slot == null) { return null; }
+        return getPathTo(slot);
+    }
 
-        while (current.previous != null) {
-            result.push(current.previous);
-            current = pathfindingInfo.get(current.previous);
+    private Stack<Tile> getPathTo(int slot) {
+        Stack<Tile> result = new Stack<>();
+        while (slot >= 0) {
+            result.push(map.getTileByIndex(tiles[slot]));
+            slot = previous[slot];
         }
-
-        return  result;
+        return result;
     }
 
-    public Stack<Tile> getPathTo(Destructible destructible) {
-        return getPathTo(targetPathTiles.getOrDefault(destructible, null));
+    private int findSlot(Tile tile) {
+        if (tile == null || tile.getMap() != map) { return -1; }
+        long key = tile.getIndex();
+        int low = 0, high = lookup.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long midKey = lookup[mid] >>> 32;
+            if (midKey < key) { low = mid + 1; }
+            else if (midKey > key) { high = mid - 1; }
+            else { return (int)lookup[mid]; }
+        }
+        return -1;
     }
 
     // Wyszukiwanie dróg do poszczególnych pól w zasięgu. Zamiast tego
@@ -97,74 +125,60 @@ public class Pathfinding {
 //        return nodeInfoMap;
 //    }
 
+    // Przeszukiwanie wszerz po indeksach pól. Ponieważ pola zdejmowane są z kolejki w kolejności
+    // niemalejących odległości, pierwsze znalezione pole przy celu jest zawsze optymalne - dzięki
+    // temu każde pole wystarczy sprawdzić pod kątem celów tylko raz.
     private void findMeeleTargetsPaths(Tile from, float maxDistance) {
 
-        this.pathfindingInfo.clear();                                         // Informacje o polach (min odległość itp)
-        this.targetPathTiles.clear();                                         // Optymalne pole dla celu
-        HashMap<Tile, List<Destructible>> destructiblesAt = new HashMap<>();  // Listy celów na polach
-        ArrayDeque<Tile> open = new ArrayDeque<>();
+        PathfindingGrid grid = map.getPathfindingGrid();
+        int[] queue = grid.queue;
+        List<Destructible> destructibles = grid.destructibles;
+        grid.reset();
 
-        open.push(from);
-        pathfindingInfo.put(from, new PathfindingNodeInfo(null, 0));
+        int head = 0, tail = 0;
+        grid.visit(from.getIndex(), 0, -1, tail++);
 
-        while (!open.isEmpty()) {
-            Tile current = open.poll();
-            int currentDistance = pathfindingInfo.get(current).distance;
+        while (head < tail) {
+            int current = queue[head++];
+            int currentDistance = grid.distances[current];
 
             if (currentDistance <= maxDistance) { // Jednostki nie muszą należeć do obszaru ruchu - wystarczy, że do niego przylegają
-                for (Tile tile : current.getNeighbors()) {
-
-                    // Znajdź potencjalne cele na sąsiedzie rozważanego pola
-                    List<Destructible> destructibles;
-                    if (destructiblesAt.containsKey(tile)) {
-                        destructibles = destructiblesAt.get(tile);
-                    }
-                    else {
-                        destructibles = tile.getDestructibles();
-                        destructiblesAt.put(tile, destructibles);
-                    }
-
-                    // Zapisz nowe cele, a jeśli nowa droga do celu jest krótsza,
-                    // zapisz rozważane pole jako obecne optymalne dla celu
-                    for (Destructible d : destructibles) {
-                        if (targetPathTiles.containsKey(d)) {
-                            if (pathfindingInfo.get(targetPathTiles.get(d)).distance > currentDistance) {
-                                targetPathTiles.replace(d, current);
-                            }
-                        }
-                        else {
-                            targetPathTiles.put(d, current);
+                for (int k = 0; k < GameMap.NEIGHBORS_COUNT; ++k) {
+                    // Zapisz nowe cele na sąsiedzie rozważanego pola (rozważane pole jest dla nich optymalne)
+                    int tileIndex = map.getNeighborIndex(current, k);
+                    if (tileIndex >= 0 && grid.markScanned(tileIndex)) {
+                        destructibles.clear();
+                        map.getTileByIndex(tileIndex).collectDestructibles(destructibles);
+                        for (Destructible d : destructibles) {
+                            targetPathTiles.putIfAbsent(d, head - 1);
                         }
                     }
                 }
             }
             if (currentDistance < maxDistance) {
-                for (Tile tile : current.getNeighbors()) {
+                for (int k = 0; k < GameMap.NEIGHBORS_COUNT; ++k) {
                     // Dodaj informacje o połączeniu z rozważanym polem
-                    if (currentDistance <= maxDistance && tile.isMovementAllowed()) {
-                        if (pathfindingInfo.containsKey(tile)) {
-                            PathfindingNodeInfo info = pathfindingInfo.get(tile);
-                            if (info.distance > currentDistance + 1) {
-                                open.add(tile);
-                                info.distance = currentDistance + 1;
-                            }
-                        } else {
-                            open.add(tile);
-                            pathfindingInfo.put(tile, new PathfindingNodeInfo(current, currentDistance + 1));
-                        }
+                    int tileIndex = map.getNeighborIndex(current, k);
+                    if (tileIndex >= 0 && !grid.isVisited(tileIndex) && map.isMovementAllowed(tileIndex)) {
+                        grid.visit(tileIndex, currentDistance + 1, current, tail++);
                     }
                 }
             }
         }
-    }
-
-    class PathfindingNodeInfo {
-        Tile previous;
-        int distance;
-
-        PathfindingNodeInfo(Tile previous, int distance) {
-            this.previous = previous;
-            this.distance = distance;
+        destructibles.clear();
+
+        // Skopiuj wyniki, aby bufory mogły zostać użyte przez kolejne przeszukiwania
+        this.tiles = Arrays.copyOf(queue, tail);
+        this.distances = new int[tail];
+        this.previous = new int[tail];
+        this.lookup = new long[tail];
+        for (int i = 0; i < tail; ++i) {
+            int tileIndex = tiles[i];
+            int previousIndex = grid.previous[tileIndex];
+            distances[i] = grid.distances[tileIndex];
+            previous[i] = previousIndex >= 0 ? grid.slots[previousIndex] : -1;
+            lookup[i] = ((long)tileIndex << 32) | i;
         }
+        Arrays.sort(lookup);
     }
 }
@@ -0,0 +1,62 @@
+package swarogi.engine;
+
+import swarogi.interfaces.Destructible;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/* Bufory przeszukiwania współdzielone przez wszystkie wyszukiwania na danej mapie.
+ * Pola identyfikowane są indeksem (xIdx * tilesY + yIdx), a zamiast czyszczenia tablic
+ * przed każdym przeszukiwaniem zwiększany jest numer generacji. */
+public final class PathfindingGrid {
+
+    private final int[] visitedStamps;
+    private final int[] scannedStamps;
+    private int generation;
+
+    final int[] distances;
+    final int[] previous;
+    final int[] slots;
+    final int[] queue;
+    final List<Destructible> destructibles;
+
+    public PathfindingGrid(int tileCount) {
+        this.visitedStamps = new int[tileCount];
+        this.scannedStamps = new int[tileCount];
+        this.distances = new int[tileCount];
+        this.previous = new int[tileCount];
+        this.slots = new int[tileCount];
+        this.queue = new int[tileCount];
+        this.destructibles = new ArrayList<>();
+    }
+
+    public int size() { return queue.length; }
+
+    // Rozpoczyna nowe przeszukiwanie - wszystkie pola stają się nieodwiedzone.
+    void reset() {
+        ++generation;
+        if (generation == Integer.MAX_VALUE) {
+            Arrays.fill(visitedStamps, 0);
+            Arrays.fill(scannedStamps, 0);
+            generation = 1;
+        }
+    }
+
+    boolean isVisited(int tileIndex) { return visitedStamps[tileIndex] == generation; }
+
+    void visit(int tileIndex, int distance, int previousIndex, int slot) {
+        visitedStamps[tileIndex] = generation;
+        distances[tileIndex] = distance;
+        previous[tileIndex] = previousIndex;
+        slots[tileIndex] = slot;
+        queue[slot] = tileIndex;
+    }
+
+    // Zwraca true, jeśli pole nie było jeszcze sprawdzane w poszukiwaniu celów.
+    boolean markScanned(int tileIndex) {
+        if (scannedStamps[tileIndex] == generation) { return false; }
+        scannedStamps[tileIndex] = generation;
+        return true;
+    }
+}
@@ -11,5 +11,7 @@ public enum Characteristic {
     Building,
     Leader,
     Worker,
-    Tree
+    Tree;
+
+    public long getMask() { return 1L << ordinal(); }
 }
@@ -0,0 +1,109 @@
+package swarogi.game;
+
+import swarogi.interfaces.Destructible;
+
+import java.util.Arrays;
+
+/* Wynik zbiorczego zapytania o cele w zasięgu (GameMap.findDestructiblesInRange). Wyniki wszystkich zapytań
+ * zapisane są kolejno w jednej tablicy - cele i-tego zapytania zajmują pozycje od getStart(i) do getEnd(i) - 1,
+ * a odległość celu od pola zapytania jest pod tą samą pozycją w tablicy odległości.
+ * Obiekt można używać wielokrotnie - kolejne zapytanie nadpisuje poprzednie wyniki bez tworzenia nowych tablic. */
+public final class DestructiblesInRange {
+
+    private int[] offsets;
+    private Destructible[] destructibles;
+    private int[] distances;
+    private int queriesCount;
+    private int size;
+
+    // Cele znalezione w bieżącym zapytaniu - tablica mieszająca (wg tożsamości obiektu) z adresowaniem otwartym.
+    // Zamiast czyszczenia po każdym zapytaniu zwiększany jest numer zapytania zapisywany przy celu.
+    private Destructible[] foundKeys;
+    private int[] foundStamps;
+    private int foundCount;
+    private int stamp;
+
+    public DestructiblesInRange() {
+        this.offsets = new int[17];
+        this.destructibles = new Destructible[64];
+        this.distances = new int[64];
+        this.foundKeys = new Destructible[128];
+        this.foundStamps = new int[128];
+        this.stamp = 1;
+    }
+
+    public int getQueriesCount() { return queriesCount; }
+    public int size() { return size; }
+
+    public int getStart(int query) { return offsets[query]; }
+    public int getEnd(int query) { return offsets[query + 1]; }
+
+    public Destructible getDestructible(int entry) { return destructibles[entry]; }
+    public int getDistance(int entry) { return distances[entry]; }
+
+    void clear(int queriesCount) {
+        if (offsets.length < queriesCount + 1) {
+            offsets = new int[queriesCount + 1];
+        }
+        Arrays.fill(destructibles, 0, size, null);
+        Arrays.fill(foundKeys, null);
+        this.queriesCount = 0;
+        this.size = 0;
+        offsets[0] = 0;
+        startQuery();
+    }
+
+    /* Dopisuje cel do bieżącego zapytania, jeśli nie został już w nim znaleziony. Pola sprawdzane są w kolejności
+     * rosnącej odległości, więc pierwsze znalezienie celu (zajmującego kilka pól) daje najmniejszą odległość. */
+    void add(Destructible destructible, int distance) {
+        if (!markFound(destructible)) { return; }
+        if (size == destructibles.length) {
+            destructibles = Arrays.copyOf(destructibles, size * 2);
+            distances = Arrays.copyOf(distances, size * 2);
+        }
+        destructibles[size] = destructible;
+        distances[size] = distance;
+        ++size;
+    }
+
+    void endQuery() {
+        offsets[++queriesCount] = size;
+        startQuery();
+    }
+
+    private void startQuery() {
+        foundCount = 0;
+        if (++stamp == Integer.MAX_VALUE) {
+            Arrays.fill(foundStamps, 0);
+            stamp = 1;
+        }
+    }
+
+    // Zwraca false, jeśli cel był już znaleziony w bieżącym zapytaniu.
+    private boolean markFound(Destructible destructible) {
+        if ((foundCount + 1) * 2 > foundKeys.length) {
+            growFound();
+        }
+        int mask = foundKeys.length - 1;
+        int hash = System.identityHashCode(destructible) * 0x9E3779B9;
+        int slot = (hash ^ (hash >>> 16)) & mask;
+        while (foundStamps[slot] == stamp) {
+            if (foundKeys[slot] == destructible) { return false; }
+            slot = (slot + 1) & mask;
+        }
+        foundKeys[slot] = destructible;
+        foundStamps[slot] = stamp;
+        ++foundCount;
+        return true;
+    }
+
+    // Powiększa tablicę znalezionych celów - wpisywane są ponownie cele bieżącego zapytania.
+    private void growFound() {
+        foundKeys = new Destructible[foundKeys.length * 2];
+        foundStamps = new int[foundStamps.length * 2];
+        foundCount = 0;
+        for (int i = offsets[queriesCount]; i < size; ++i) {
+            markFound(destructibles[i]);
+        }
+    }
+}
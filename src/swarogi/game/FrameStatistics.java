@@ -0,0 +1,62 @@
+package swarogi.game;
+
+import java.util.Arrays;
+
+/* Czasy ostatnich klatek (bufor cykliczny) oraz liczba klatek zgubionych - takich, które trwały
+ * wyraźnie dłużej niż zakładany czas klatki, lub pominiętych aktualizacji logiki. */
+public class FrameStatistics {
+
+    private final long[] frameTimes;
+    private final long[] sortedFrameTimes;
+    private final long targetFrameTime;
+    private int count;
+    private int next;
+    private long totalFrames;
+    private long droppedFrames;
+    private long skippedUpdates;
+    private boolean sorted;
+
+    public FrameStatistics(int capacity, long targetFrameTime) {
+        this.frameTimes = new long[capacity];
+        this.sortedFrameTimes = new long[capacity];
+        this.targetFrameTime = targetFrameTime;
+    }
+
+    // Czas klatki w nanosekundach (od pokazania poprzedniej do pokazania obecnej).
+    public void addFrame(long frameTime) {
+        frameTimes[next] = frameTime;
+        next = (next + 1) % frameTimes.length;
+        if (count < frameTimes.length) { ++count; }
+        ++totalFrames;
+        if (frameTime > targetFrameTime * 3 / 2) { ++droppedFrames; }
+        sorted = false;
+    }
+
+    public void addSkippedUpdates(int updates) { this.skippedUpdates += updates; }
+
+    // Percentyl czasu klatki (w milisekundach) spośród zapamiętanych klatek.
+    public double getPercentile(double percentile) {
+        if (count == 0) { return 0; }
+        if (!sorted) {
+            System.arraycopy(frameTimes, 0, sortedFrameTimes, 0, count);
+            Arrays.sort(sortedFrameTimes, 0, count);
+            sorted = true;
+        }
+        int index = (int)Math.ceil(percentile / 100.0 * count) - 1;
+        return sortedFrameTimes[Math.max(0, Math.min(count - 1, index))] / 1_000_000.0;
+    }
+
+    public double getMedian() { return getPercentile(50); }
+    public double getPercentile99() { return getPercentile(99); }
+
+    public double getAverageFps() {
+        if (count == 0) { return 0; }
+        long sum = 0;
+        for (int i = 0; i < count; ++i) { sum += frameTimes[i]; }
+        return sum > 0 ? count * 1_000_000_000.0 / sum : 0;
+    }
+
+    public long getTotalFrames() { return totalFrames; }
+    public long getDroppedFrames() { return droppedFrames; }
+    public long getSkippedUpdates() { return skippedUpdates; }
+}
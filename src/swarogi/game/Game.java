@@ -1,5 +1,6 @@
 package swarogi.game;
 
+import swarogi.common.Configuration;
 import swarogi.common.ContentManager;
 import swarogi.data.Database;
 import swarogi.engine.MapLoader;
@@ -8,23 +9,51 @@ public class Game {
 
     GameWindow gameWindow;
     GameControls gameControls;
+    FrameStatistics frameStatistics;
 
     public boolean initialize() {
-        ContentManager.loadContent();
-        System.out.println("Zakończono ładowanie modeli.");
+        // Okno pokazywane jest od razu, a zasoby wczytywane są w tle
+        gameWindow = new GameWindow();
+        gameWindow.showLoadingScreen();
+        gameWindow.setVisible(true);
+
+        long loadingStart = System.nanoTime();
+        ContentManager.startLoadingContent();
         Database.initialize();
         System.out.println("Zakończono inicjalizację bazy danych.");
 
-        gameWindow = new GameWindow();
+        while (!ContentManager.isContentLoaded()) {
+            gameWindow.setLoadingProgress(ContentManager.getLoadingProgress());
+            try {
+                Thread.sleep(10);
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        ContentManager.waitForContent();
+        gameWindow.setLoadingProgress(1f);
+        System.out.println("Zakończono ładowanie modeli (" + (System.nanoTime() - loadingStart) / 1_000_000 + " ms).");
+
+        // Podstawy modeli w kolorach graczy barwione są w tle, w trakcie wczytywania mapy
+        ContentManager.prepareTintedTextureBases(Configuration.PLAYER_COLORS);
+
+        GameMap map = MapLoader.loadMap("maps/map01.txt");
+        if (map == null) { return false; }
+
         gameControls = new GameControls();
+        frameStatistics = new FrameStatistics(Configuration.FRAME_STATISTICS_SIZE,
+                1_000_000_000L / Configuration.MAX_RENDER_FPS);
 
-        GamePanel gamePanel = new GamePanel(MapLoader.loadMap("maps/map01.txt"), gameControls);
+        GamePanel gamePanel = new GamePanel(map, gameControls);
         gamePanel.addMouseListener(gameControls);
         gamePanel.addMouseMotionListener(gameControls);
+        gamePanel.setFrameStatistics(frameStatistics);
         gameWindow.addKeyListener(gameControls);
 
         gameWindow.setPanel(gamePanel);
-        gameWindow.setVisible(true);
+        gamePanel.createBufferStrategy(2);
 
         running = true;
 
@@ -39,10 +68,13 @@ public class Game {
         gameWindow.currentPanel.update(time);
     }
 
-    public void render() {
-        gameWindow.currentPanel.repaint();
+    // Rysowanie aktywne (w wątku pętli gry) - alpha to część kroku logiki, która upłynęła od ostatniej aktualizacji.
+    public void render(float alpha) {
+        gameWindow.currentPanel.render(alpha);
     }
 
+    public FrameStatistics getFrameStatistics() { return frameStatistics; }
+
     public void dispose() {
         // TODO: Dispose
     }
@@ -4,8 +4,52 @@ public class GameCamera {
     public int x;
     public int y;
 
+    // Stan kamery z końca poprzedniej aktualizacji
+    private int previousX;
+    private int previousY;
+    private int interpolationX;     // Położenie kamery z początku ostatniej aktualizacji (do interpolacji przy rysowaniu)
+    private int interpolationY;
+    private int viewportWidth;
+    private int viewportHeight;
+    private boolean viewportChanged;
+    private boolean outdated;
+
+    public GameCamera() {
+        this.outdated = true; // Nowa kamera - wszystko, co od niej zależy, trzeba wyznaczyć
+    }
+
+    // Czy od poprzedniej aktualizacji zmieniło się położenie kamery lub rozmiar okna.
     public boolean hasPositionChanged() {
-        //TODO: Obsługa kamery.
-        return true;
+        return outdated || viewportChanged || x != previousX || y != previousY;
+    }
+
+    public void setViewport(int width, int height) {
+        if (width != viewportWidth || height != viewportHeight) {
+            viewportWidth = width;
+            viewportHeight = height;
+            viewportChanged = true;
+        }
+    }
+
+    public int getViewportWidth() { return viewportWidth; }
+    public int getViewportHeight() { return viewportHeight; }
+
+    // Wywoływane na końcu aktualizacji - kolejne zmiany będą liczone od obecnego stanu.
+    public void savePosition() {
+        interpolationX = outdated ? x : previousX;
+        interpolationY = outdated ? y : previousY;
+        previousX = x;
+        previousY = y;
+        viewportChanged = false;
+        outdated = false;
+    }
+
+    public void invalidate() { this.outdated = true; }
+
+    public int getInterpolatedX(float alpha) {
+        return outdated ? x : interpolationX + Math.round((x - interpolationX) * alpha);
+    }
+    public int getInterpolatedY(float alpha) {
+        return outdated ? y : interpolationY + Math.round((y - interpolationY) * alpha);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,75 @@
+package swarogi.game;
+
+import swarogi.common.Configuration;
+
+/* Pętla gry ze stałym krokiem logiki (Configuration.FPS) oraz rysowaniem z interpolacją pomiędzy
+ * dwoma ostatnimi stanami logiki (co najwyżej Configuration.MAX_RENDER_FPS klatek na sekundę). */
+public class GameLoop {
+
+    private final Game game;
+    private final FrameStatistics statistics;
+    private final long updateInterval;
+    private final long renderInterval;
+
+    public GameLoop(Game game) {
+        this.game = game;
+        this.statistics = game.getFrameStatistics();
+        this.updateInterval = 1_000_000_000L / Configuration.FPS;
+        this.renderInterval = 1_000_000_000L / Configuration.MAX_RENDER_FPS;
+    }
+
+    public void run() {
+        long previousTime = System.nanoTime();
+        long previousFrameEnd = previousTime;
+        long lag = 0;
+        long updates = 0;
+
+        while (game.isRunning()) {
+            long frameStart = System.nanoTime();
+            lag += frameStart - previousTime;
+            previousTime = frameStart;
+
+            // Nadrób zaległe kroki logiki (z ograniczeniem, by wolna klatka nie powodowała kolejnych)
+            int frameUpdates = 0;
+            while (lag >= updateInterval && frameUpdates < Configuration.MAX_UPDATES_PER_FRAME) {
+                game.handleEvents();
+                game.update(updates * 1000 / Configuration.FPS);
+                lag -= updateInterval;
+                ++updates;
+                ++frameUpdates;
+            }
+            if (lag >= updateInterval) {
+                statistics.addSkippedUpdates((int)(lag / updateInterval));
+                lag %= updateInterval;
+            }
+
+            game.render((float)lag / updateInterval);
+
+            long frameEnd = System.nanoTime();
+            statistics.addFrame(frameEnd - previousFrameEnd);
+            previousFrameEnd = frameEnd;
+
+            sleepUntil(frameStart + renderInterval);
+        }
+    }
+
+    // Thread.sleep jest mało dokładny, więc ostatnią milisekundę czekamy aktywnie.
+    private static void sleepUntil(long time) {
+        long remaining = time - System.nanoTime();
+        while (remaining > 0) {
+            if (remaining > 2_000_000L) {
+                try {
+                    Thread.sleep((remaining - 1_000_000L) / 1_000_000L);
+                }
+                catch (InterruptedException e) {
+                    e.printStackTrace();
+                    return;
+                }
+            }
+            else {
+                Thread.yield();
+            }
+            remaining = time - System.nanoTime();
+        }
+    }
+}
@@ -1,44 +1,90 @@
 package swarogi.game;
 
 import swarogi.common.Configuration;
-import swarogi.common.ContentManager;
 import swarogi.engine.Movement;
+import swarogi.engine.PathfindingGrid;
 import swarogi.enums.Direction;
-import swarogi.enums.ObjectState;
 import swarogi.enums.TerrainType;
 import swarogi.interfaces.Destructible;
 import swarogi.interfaces.Placeable;
-import swarogi.interfaces.PlaceableData;
+import swarogi.interfaces.TerrainChangeListener;
 
 import java.awt.*;
-import java.awt.image.BufferedImage;
 import java.util.*;
 import java.util.List;
 
 public class GameMap {
 
+    public static final int NEIGHBORS_COUNT = 6;
+
+    // Kolejne boki pierścienia pól we współrzędnych osiowych (q - kolumna, r - przekątna)
+    private static final int[] RING_STEPS_Q = { 1, 1, 0, -1, -1, 0 };
+    private static final int[] RING_STEPS_R = { 0, -1, -1, 0, 1, 1 };
+
     private final Tile[][] tiles;
-    private final List<Placeable> placeables;
-    private final List<Destructible> destructibles;
+    private final Tile[] tilesByIndex;
+    private final int[] neighbors;      // Indeksy sąsiadów w kolejności kierunków (Direction), -1 poza mapą
+    final TileOccupancy occupancy;      // Flagi i liczniki obiektów wszystkich pól
+    private PathfindingGrid pathfindingGrid;
+    private final PlaceablesDepthList placeables;
+    private final PlaceablesIndex placeablesIndex;
+    private final LinkedHashSet<Destructible> destructibles; // Kolejność dodania, usuwanie w czasie stałym
     private int tilesX;
     private int tilesY;
     private List<Tile> playerPositions;
+    private final List<TerrainChangeListener> terrainChangeListeners;
+    private int version;                // Zwiększany przy każdej zmianie obiektów lub terenu na mapie
 
     public GameMap(int tilesX, int tilesY) {
         this.tilesX = tilesX;
         this.tilesY = tilesY;
+        terrainChangeListeners = new ArrayList<>();
         tiles = new Tile[tilesX][tilesY];
-        placeables = new ArrayList<>();
-        destructibles = new ArrayList<>();
+        tilesByIndex = new Tile[tilesX * tilesY];
+        occupancy = new TileOccupancy(tilesX * tilesY);
+        placeables = new PlaceablesDepthList();
+        destructibles = new LinkedHashSet<>();
         playerPositions = new ArrayList<>();
+        placeablesIndex = new PlaceablesIndex(getMapWidth(), getMapHeight());
 
         for (int i = 0; i < tilesX; ++i) {
             for (int j = 0; j < tilesY; ++j) {
                 Tile tile = new Tile(this, i, j);
                 tile.setTerrainType(TerrainType.Grass);
                 tiles[i][j] = tile;
+                tilesByIndex[tile.index] = tile;
             }
         }
+
+        neighbors = new int[tilesX * tilesY * NEIGHBORS_COUNT];
+        for (int i = 0; i < tilesX; ++i) {
+            for (int j = 0; j < tilesY; ++j) {
+                int offset = (i * tilesY + j) * NEIGHBORS_COUNT;
+                if (i % 2 == 0) { // Kolumna parzysta
+                    neighbors[offset] = getTileIndex(i - 1, j - 1);     // lewy górny
+                    neighbors[offset + 1] = getTileIndex(i, j - 1);     // górny
+                    neighbors[offset + 2] = getTileIndex(i + 1, j - 1); // prawy górny
+                    neighbors[offset + 3] = getTileIndex(i + 1, j);     // prawy dolny
+                    neighbors[offset + 4] = getTileIndex(i, j + 1);     // dolny
+                    neighbors[offset + 5] = getTileIndex(i - 1, j);     // lewy dolny
+                }
+                else { // Kolumna nieparzysta
+                    neighbors[offset] = getTileIndex(i - 1, j);         // lewy górny
+                    neighbors[offset + 1] = getTileIndex(i, j - 1);     // górny
+                    neighbors[offset + 2] = getTileIndex(i + 1, j);     // prawy górny
+                    neighbors[offset + 3] = getTileIndex(i + 1, j + 1); // prawy dolny
+                    neighbors[offset + 4] = getTileIndex(i, j + 1);     // dolny
+                    neighbors[offset + 5] = getTileIndex(i - 1, j + 1); // lewy dolny
+                }
+            }
+        }
+    }
+
+    private int getTileIndex(int xIdx, int yIdx) {
+        if (0 <= xIdx && xIdx < tilesX && 0 <= yIdx && yIdx < tilesY) {
+            return xIdx * tilesY + yIdx;
+        }
+        return -1;
     }
 
     public Tile getTile(int xIdx, int yIdx) {
@@ -48,30 +94,25 @@ public class GameMap {
         return null;
     }
 
-    public Tile getTileNeighbor(Tile tile, Direction direction) {
-        int x = tile.xIdx, y = tile.yIdx;
-
-        if (x % 2 == 0) {
-            switch (direction) {
-                case TOP_LEFT: return getTile(x - 1, y - 1);
-                case TOP: return getTile(x, y - 1);
-                case TOP_RIGHT: return getTile(x + 1, y - 1);
-                case BOTTOM_RIGHT: return getTile(x + 1, y);
-                case BOTTOM: return getTile(x, y + 1);
-                case BOTTOM_LEFT: return getTile(x - 1, y);
-            }
-        }
-        else {
-            switch (direction) {
-                case TOP_LEFT: return getTile(x - 1, y);
-                case TOP: return getTile(x, y - 1);
-                case TOP_RIGHT: return getTile(x + 1, y);
-                case BOTTOM_RIGHT: return getTile(x + 1, y + 1);
-                case BOTTOM: return getTile(x, y + 1);
-                case BOTTOM_LEFT: return getTile(x - 1, y + 1);
-            }
+    public Tile getTileByIndex(int index) { return tilesByIndex[index]; }
+    public boolean isMovementAllowed(int index) { return occupancy.isMovementAllowed(index); }
+
+    // Bufory wyszukiwania dróg tworzone są raz na mapę i współdzielone przez kolejne wyszukiwania.
+    public PathfindingGrid getPathfindingGrid() {
+        if (pathfindingGrid == null) {
+            pathfindingGrid = new PathfindingGrid(tilesByIndex.length);
         }
-        return null;
+        return pathfindingGrid;
+    }
+
+    /* Zwraca indeks sąsiada pola w danym kierunku (numer kierunku jak w Direction) lub -1, gdy sąsiad jest poza mapą */
+    public int getNeighborIndex(int tileIndex, int direction) {
+        return neighbors[tileIndex * NEIGHBORS_COUNT + direction];
+    }
+
+    public Tile getTileNeighbor(Tile tile, Direction direction) {
+        int index = neighbors[tile.index * NEIGHBORS_COUNT + direction.ordinal()];
+        return index >= 0 ? tilesByIndex[index] : null;
     }
 
     public Tile getTileByCoordinates(int x, int y) {
@@ -140,12 +181,24 @@ public class GameMap {
         return null;
     }
 
+    public int getVersion() { return version; }
+
     public int getTilesX() { return tilesX; }
     public int getTilesY() { return tilesY; }
 
     public int getMapWidth() { return (Configuration.TILE_WIDTH - Configuration.TILE_SLANT_WIDTH) * tilesX + Configuration.TILE_SLANT_WIDTH; }
     public int getMapHeight() { return Configuration.TILE_HEIGHT * tilesY + Configuration.TILE_HEIGHT / 2; }
 
+    public void addTerrainChangeListener(TerrainChangeListener listener) { terrainChangeListeners.add(listener); }
+    public void removeTerrainChangeListener(TerrainChangeListener listener) { terrainChangeListeners.remove(listener); }
+
+    void onTerrainChanged(Tile tile) {
+        ++version;
+        for (TerrainChangeListener listener : terrainChangeListeners) {
+            listener.onTerrainChanged(tile);
+        }
+    }
+
     public void addPlayerPosition(Tile tile) { this.playerPositions.add(tile); }
     public List<Tile> getPlayerPositions() { return this.playerPositions; }
 
@@ -154,44 +207,51 @@ public class GameMap {
     public boolean tryPlace(Placeable placeable, Tile tile) {
         if (Movement.place(placeable, tile)) {
             placeables.add(placeable);
-            placeables.sort(new PlaceablesYCoordinateComparator());
+            placeablesIndex.add(placeable);
+            ++version;
             return true;
         }
         return false;
     }
-    public List<Placeable> getPlaceables() { return placeables; }
+    public Collection<Placeable> getPlaceables() { return Collections.unmodifiableCollection(placeables); }
+
+    /* Dopisuje do listy obiekty widoczne w podanym prostokącie (w pikselach mapy) w kolejności rysowania */
+    public void getPlaceablesInArea(int x, int y, int width, int height, List<Placeable> result) {
+        placeablesIndex.query(x, y, width, height, result);
+    }
+
+    // Wywoływane przez Movement po przeniesieniu obiektu na inne pole.
+    public void onPlaceableMoved(Placeable placeable) {
+        ++version;
+        placeables.update(placeable);
+        placeablesIndex.update(placeable);
+    }
 
-    public List<Destructible> getDestructibles() { return this.destructibles; }
+    public Collection<Destructible> getDestructibles() { return Collections.unmodifiableCollection(destructibles); }
     public void addDestructible(Destructible destructible) { this.destructibles.add(destructible); }
     public boolean removeDestructible(Destructible destructible) {
-        return this.destructibles.remove(destructible) && this.placeables.remove(destructible);
+        if (this.destructibles.remove(destructible)) {
+            ++version;
+            placeablesIndex.remove(destructible);
+            return this.placeables.remove(destructible);
+        }
+        return false;
     }
     public boolean removePlaceable(Placeable placeable) {
+        ++version;
+        placeablesIndex.remove(placeable);
         return this.placeables.remove(placeable);
     }
 
     /* Zwraca sąsiadujące pola */
     public List<Tile> getTileNeighbors(int xIdx, int yIdx) {
-        // TODO: Dodać sprawdzenie na to czy indeksy należą do tablicy?
-        ArrayList<Tile> result = new ArrayList(6);
-        if (xIdx % 2 == 0) { // Kolumna parzysta
-            if (yIdx > 0) {
-                if (xIdx > 0) { result.add(tiles[xIdx - 1][yIdx - 1]); }          // lewy górny
-                result.add(tiles[xIdx][yIdx - 1]);                                // górny
-                if (xIdx < tilesX - 1) { result.add(tiles[xIdx + 1][yIdx - 1]); } // prawy górny
-            }
-            if (xIdx < tilesX - 1) { result.add(tiles[xIdx + 1][yIdx]); }         // prawy dolny
-            if (yIdx < tilesY - 1) { result.add(tiles[xIdx][yIdx + 1]); }         // dolny
-            if (xIdx > 0) { result.add(tiles[xIdx - 1][yIdx]); }                  // lewy dolny
-        }
-        else { // Kolumna nieparzysta
-            if (xIdx > 0) { result.add(tiles[xIdx - 1][yIdx]); }                  // lewy górny
-            if (yIdx > 0) { result.add(tiles[xIdx][yIdx - 1]); }                  // górny
-            if (xIdx < tilesX - 1) { result.add(tiles[xIdx + 1][yIdx]); }         // prawy górny
-            if (yIdx < tilesY - 1) {
-                if (xIdx < tilesX - 1) { result.add(tiles[xIdx + 1][yIdx + 1]); } // prawy dolny
-                result.add(tiles[xIdx][yIdx + 1]);                                // dolny
-                if (xIdx > 0) { result.add(tiles[xIdx - 1][yIdx + 1]); }          // lewy dolny
+        ArrayList<Tile> result = new ArrayList<>(NEIGHBORS_COUNT);
+        int index = getTileIndex(xIdx, yIdx);
+        if (index >= 0) {
+            int offset = index * NEIGHBORS_COUNT;
+            for (int k = 0; k < NEIGHBORS_COUNT; ++k) {
+                int neighbor = neighbors[offset + k];
+                if (neighbor >= 0) { result.add(tilesByIndex[neighbor]); }
             }
         }
         return result;
@@ -212,7 +272,11 @@ public class GameMap {
             int currentDistance = minDistances.get(current) + 1;
 
             if (currentDistance <= outerRadius) {
-                for (Tile t : current.getNeighbors()) {
+                int offset = current.index * NEIGHBORS_COUNT;
+                for (int k = 0; k < NEIGHBORS_COUNT; ++k) {
+                    int neighbor = neighbors[offset + k];
+                    if (neighbor < 0) { continue; }
+                    Tile t = tilesByIndex[neighbor];
                     if (!minDistances.containsKey(t)) {
                         minDistances.put(t, currentDistance);
                         open.add(t);
@@ -253,7 +317,11 @@ public class GameMap {
             ++currentDistance;
 
             if (currentDistance <= radius) {
-                for (Tile t : current.getNeighbors()) {
+                int offset = current.index * NEIGHBORS_COUNT;
+                for (int k = 0; k < NEIGHBORS_COUNT; ++k) {
+                    int neighbor = neighbors[offset + k];
+                    if (neighbor < 0) { continue; }
+                    Tile t = tilesByIndex[neighbor];
                     if (!minDistances.containsKey(t)) {
                         minDistances.put(t, currentDistance);
                         open.add(t);
@@ -265,22 +333,41 @@ public class GameMap {
         return foundDestructibles;
     }
 
-    class PlaceablesYCoordinateComparator implements Comparator<Placeable> {
-
-        @Override
-        public int compare(Placeable p1, Placeable p2) {
-            return Integer.compare(getValueFor(p1), getValueFor(p2));
-        }
-
-        private int getValueFor(Placeable placeable) {
-            PlaceableData placeableData = placeable.getPlaceableData();
-            BufferedImage texture = ContentManager.getModel(placeableData.getModelName(), ObjectState.NORMAL);
-            if (texture != null) {
-                return placeable.getTile().getTopLeft().y +
-                        (int)(texture.getHeight() * placeableData.getYScale()) / 2
-                        + placeableData.getYTexturePosition();
+    /* Zbiorcze zapytanie o cele w zasięgu wielu pól naraz (np. wszystkich jednostek gracza). Dla każdego pola
+     * tileIndices[i] znajduje cele w odległości co najwyżej radii[i] wraz z najmniejszą odległością - tak jak
+     * getMinDistancesToDestructiblesInRange, ale bez przeszukiwania wszerz i map. Pola kolejnych pierścieni wokół
+     * pola wyznaczane są wprost ze współrzędnych sześciokątnych, a wyniki zapisywane do tablic w result. */
+    public void findDestructiblesInRange(int[] tileIndices, int[] radii, int count, DestructiblesInRange result) {
+        result.clear(count);
+        for (int i = 0; i < count; ++i) {
+            int index = tileIndices[i];
+            int column = index / tilesY;
+            // Kolumny nieparzyste są przesunięte w dół, więc przekątna r = wiersz - floor(kolumna / 2)
+            int r = index % tilesY - (column >> 1);
+
+            tilesByIndex[index].collectDestructibles(result, 0);
+            for (int distance = 1; distance <= radii[i]; ++distance) {
+                int ringQ = column - distance;
+                int ringR = r + distance;
+                for (int side = 0; side < NEIGHBORS_COUNT; ++side) {
+                    for (int step = 0; step < distance; ++step) {
+                        if (0 <= ringQ && ringQ < tilesX) {
+                            int row = ringR + (ringQ >> 1);
+                            if (0 <= row && row < tilesY) {
+                                tilesByIndex[ringQ * tilesY + row].collectDestructibles(result, distance);
+                            }
+                        }
+                        ringQ += RING_STEPS_Q[side];
+                        ringR += RING_STEPS_R[side];
+                    }
+                }
             }
-            return Integer.MIN_VALUE;
+            result.endQuery();
         }
     }
-}
\ No newline at end of file
+
+    // Zapytanie dla jednego pola - wyniki pod indeksem zapytania 0.
+    public void findDestructiblesInRange(Tile tile, int radius, DestructiblesInRange result) {
+        findDestructiblesInRange(new int[] { tile.index }, new int[] { radius }, 1, result);
+    }
+}
@@ -5,62 +5,59 @@ import swarogi.common.ContentManager;
 import swarogi.common.TerrainExtensionInfo;
 import swarogi.common.WindowSize;
 import swarogi.engine.MapLoader;
-import swarogi.enums.Direction;
 import swarogi.enums.ObjectState;
 import swarogi.enums.TerrainType;
 import swarogi.gui.RenderingHelper;
 import swarogi.interfaces.WindowSizeProvider;
-import swarogi.data.Database;
 import swarogi.interfaces.*;
 import swarogi.enums.ActionButton;
 import swarogi.models.*;
 import swarogi.playermodes.*;
 
-import javax.swing.JPanel;
 import java.awt.*;
+import java.awt.image.BufferStrategy;
 import java.awt.image.BufferedImage;
 import java.util.*;
 import java.util.List;
 
-public class GamePanel extends JPanel implements PlayerModeChangeListener, WindowSizeProvider {
+public class GamePanel extends Canvas implements WindowSizeProvider {
+
+    private static final Color BACKGROUND_COLOR = new Color(32,32,32);
 
     private GameMap map;
+    private GameSession session;
     private Renderer renderer;
-    private ArrayList<Player> players;
-    private int currentPlayerId;
-    private PlayerMode currentPlayerMode;
-    private ArrayDeque<Action> actions;
-    private ControlsProvider controlsProvider;
     private Font font;
     private List<Tile> visibleTiles;
+    private TerrainChunkCache terrainCache;
+    private List<Placeable> visiblePlaceables;
+    private GameCamera renderCamera;
+    private RenderSnapshotBuffer snapshots;
+    private FrameStatistics frameStatistics;
 
     public GamePanel(GameMap map, ControlsProvider controls) {
         this.map = map;
-        this.controlsProvider = controls;
-
-        this.actions = new ArrayDeque<>();
         this.renderer = new Renderer();
 
         this.font = new Font("TimesRoman", Font.PLAIN, 14);
 
-        this.players = new ArrayList<>();
-
         this.visibleTiles = new ArrayList<>();
+        this.terrainCache = new TerrainChunkCache(map);
+        this.visiblePlaceables = new ArrayList<>();
+        this.renderCamera = new GameCamera();
+        this.snapshots = new RenderSnapshotBuffer();
 
-        List<Tile> playersPosition = map.getPlayerPositions();
-        int n = Math.min(playersPosition.size(), Configuration.MAX_PLAYERS);
-
-        for (int i = 0; i < n; ++i) {
-            Player player = new Player();
-            initializePlayer(player, "Gracz " + Integer.toString(i + 1), Configuration.PLAYER_COLORS.get(i), i, playersPosition.get(i));
-            this.players.add(player);
-        }
-
-        currentPlayerId = players.size();
+        // Panel rysowany jest aktywnie przez pętlę gry, a klawiatura obsługiwana jest przez okno
+        setIgnoreRepaint(true);
+        setFocusable(false);
+        setBackground(BACKGROUND_COLOR);
 
         WindowSize.setWindowSizeProvider(this);
 
-        nextPlayer();
+        this.session = new GameSession(map, controls);
+        prepareSprites();
+        updateVisibleTiles();
+        publishSnapshot();
     }
 
     public void update(long time) {
@@ -68,19 +65,29 @@ public class GamePanel extends JPanel implements PlayerModeChangeListener, Windo
         //Point mousePosition = controlsProvider.getPointerPosition();
         // TODO: Zbadać zdarzenia z interfejsem?
 
-        Player currentPlayer = players.get(currentPlayerId);
+        Player currentPlayer = session.getCurrentPlayer();
 
-        if (!currentPlayerMode.isLockingCamera()) {
-            currentPlayer.updateCamera();
+        // Zapamiętaj położenie jednostek z poprzedniego kroku (do interpolacji przy rysowaniu)
+        // i przesuń animacje ruchu - stan gry jest już zaktualizowany
+        for (Player player : session.getPlayers()) {
+            for (Unit unit : player.getUnits()) {
+                unit.saveTranslation();
+                unit.updateAnimation();
+            }
         }
 
-        updateModeSelection();
+        GameCamera camera = currentPlayer.getCamera();
+        camera.setViewport(getWidth(), getHeight());
+
+        if (!session.getCurrentPlayerMode().isLockingCamera()) {
+            currentPlayer.updateCamera();
+        }
 
-        currentPlayerMode.update();
+        session.update();
 
-        ControlsProvider controls = currentPlayer.getControls();
+        ControlsProvider controls = session.getControls();
 
-        if (currentPlayer.getCamera().hasPositionChanged()) {
+        if (camera.hasPositionChanged()) {
             updateVisibleTiles(); // TODO: Może to w ogóle przenieść do kamery?
         }
 
@@ -105,42 +112,75 @@ public class GamePanel extends JPanel implements PlayerModeChangeListener, Windo
             if (controls.isButtonDown(ActionButton.OPTION_1)) {
                 Configuration.isHexagonalMeshVisible = !Configuration.isHexagonalMeshVisible;
             }
+            if (controls.isButtonDown(ActionButton.OPTION_2)) {
+                Configuration.areFrameStatisticsVisible = !Configuration.areFrameStatisticsVisible;
+            }
         }
 
-        if (!currentPlayerMode.isPausingGameplay()) {
-            // Zaktualizuj akcje
-            while (!actions.isEmpty()) {
-                Action currentAction = actions.peek();
-                if (!currentAction.hasStarted()) {
-                    if (currentAction.canBeExecuted()) {
-                        currentAction.start();
-                    }
-                    else {
-                        currentAction.abort();
-                        actions.poll();
-                        break;
-                    }
-                }
-                if (currentAction.isCompleted()) {
-                    currentAction.finish();
-                    actions.poll();
-                }
-                else {
-                    currentAction.update();
-                    break;
-                }
-            }
+        camera.savePosition();
+
+        // Tura mogła zostać zakończona - pokaż widok kolejnego gracza
+        if (session.getCurrentPlayer() != currentPlayer) {
+            session.getCurrentPlayer().getCamera().invalidate();
+            updateVisibleTiles();
+        }
+
+        publishSnapshot();
+    }
+
+    // Zapisuje widoczne pola i obiekty do opisu klatki, z którego korzysta rysowanie.
+    private void publishSnapshot() {
+        RenderSnapshot snapshot = snapshots.beginWrite();
+
+        for (Tile tile : visibleTiles) {
+            Point pos = tile.getTopLeft();
+            snapshot.addTile(pos.x, pos.y);
         }
 
-        if (controlsProvider.isButtonDown(ActionButton.END_TURN)) {
-            nextPlayer();
+        // Obszar, przez który przejdzie kamera do następnej aktualizacji
+        GameCamera camera = session.getCurrentPlayer().getCamera();
+        int x1 = Math.min(camera.x, camera.getInterpolatedX(0));
+        int y1 = Math.min(camera.y, camera.getInterpolatedY(0));
+        int x2 = Math.max(camera.x, camera.getInterpolatedX(0)) + getWidth();
+        int y2 = Math.max(camera.y, camera.getInterpolatedY(0)) + getHeight();
+
+        // TODO: Mało estetyczne rozwiązanie, ale pozwala rozdzielić logikę od interfejsu.
+        visiblePlaceables.clear();
+        map.getPlaceablesInArea(x1, y1, x2 - x1, y2 - y1, visiblePlaceables);
+        recordPlaceables(snapshot, visiblePlaceables);
+        visiblePlaceables.clear();
+
+        snapshots.publish();
+    }
+
+    private void recordPlaceables(RenderSnapshot snapshot, List<Placeable> placeables) {
+        renderer.startRecording(snapshot);
+        for (Placeable placeable : placeables) {
+            if (placeable instanceof Obstacle) {
+                renderer.render((Obstacle)placeable);
+            }
+            else if (placeable instanceof Unit) {
+                renderer.render((Unit)placeable);
+            }
+            else if (placeable instanceof Building) {
+                renderer.render((Building) placeable);
+            }
+            else if (placeable instanceof Decoration) {
+                renderer.render((Decoration)placeable);
+            }
         }
+        renderer.endRendering();
+    }
+
+    // Umieszcza w arkuszach tekstur wszystkie obiekty mapy, aby nie robić tego w trakcie gry.
+    private void prepareSprites() {
+        recordPlaceables(new RenderSnapshot(), new ArrayList<>(map.getPlaceables()));
     }
 
     private void updateVisibleTiles() {
         visibleTiles.clear();
 
-        GameCamera camera = players.get(currentPlayerId).getCamera();
+        GameCamera camera = session.getCurrentPlayer().getCamera();
         Tile firstTile = map.getTileByCoordinates(Math.max(Configuration.TILE_SLANT_WIDTH, camera.x), Math.max(Configuration.TILE_HEIGHT / 2, camera.y));
         if (firstTile == null) { return; }
 
@@ -159,188 +199,66 @@ public class GamePanel extends JPanel implements PlayerModeChangeListener, Windo
                 }
             }
         }
+    }
+
+    public void setFrameStatistics(FrameStatistics frameStatistics) { this.frameStatistics = frameStatistics; }
+
+    // Rysuje klatkę w buforze i wyświetla ją (wywoływane z wątku pętli gry).
+    public void render(float alpha) {
+        BufferStrategy bufferStrategy = getBufferStrategy();
+        if (bufferStrategy == null) { return; }
+
+        do {
+            do {
+                Graphics g = bufferStrategy.getDrawGraphics();
+                try {
+                    render(g, alpha);
+                }
+                finally {
+                    g.dispose();
+                }
+            } while (bufferStrategy.contentsRestored());
+            bufferStrategy.show();
+        } while (bufferStrategy.contentsLost());
 
-        visibleTiles.sort(Comparator.comparingInt((Tile t) -> t.getTerrainType().getTilingPriority()));
+        Toolkit.getDefaultToolkit().sync();
     }
 
-    @Override
-    protected void paintComponent(Graphics g) {
-        super.paintComponent(g);
-        setBackground(new Color(32,32,32));
+    private void render(Graphics g, float alpha) {
+        Dimension size = getSize();
+        g.setColor(BACKGROUND_COLOR);
+        g.fillRect(0, 0, size.width, size.height);
 
         if (map == null) { return; }
 
-        GameCamera camera = players.get(currentPlayerId).getCamera();
-        renderer.startRendering(g, camera);
-
-        int cameraX = camera.x;
-        int cameraY = camera.y;
+        // Kamera w położeniu pośrednim pomiędzy dwoma ostatnimi krokami logiki
+        GameCamera playerCamera = session.getCurrentPlayer().getCamera();
+        GameCamera camera = renderCamera;
+        camera.x = playerCamera.getInterpolatedX(alpha);
+        camera.y = playerCamera.getInterpolatedY(alpha);
+        RenderSnapshot snapshot = snapshots.acquire();
 
         // Narysuj kafelki
-        List<Tile> visibleTiles = new ArrayList<Tile>(this.visibleTiles);
-        for (Tile tile : visibleTiles) {
-            renderer.render(tile);
-        }
+        terrainCache.render(g, camera, size);
 
         // Narysuj obramowanie kafelków
         if (Configuration.isHexagonalMeshVisible) {
-            BufferedImage tileHex = ContentManager.tileHex;
-            int tileWidth = Configuration.TILE_WIDTH;
-            int tileHeight = Configuration.TILE_HEIGHT;
-
-            for (Tile tile : visibleTiles) {
-                Point pos = tile.getTopLeft();
-                int x = pos.x - cameraX;
-                int y = pos.y - cameraY;
-                g.drawImage(tileHex, x, y, tileWidth, tileHeight, null);
-            }
+            snapshot.drawTiles(g, ContentManager.getScaledImage(ContentManager.tileHex, Configuration.TILE_WIDTH,
+                    Configuration.TILE_HEIGHT), camera.x, camera.y);
         }
 
         // Narysuj zaznaczenie
-        currentPlayerMode.renderSelection(g, camera);
-
-        // TODO: Mało estetyczne rozwiązanie, ale pozwala rozdzielić logikę od interfejsu.
-        // TODO: Pobierać tylko widoczne obiekty (drzewo AABB będzie jak znalazł).
-        for (Placeable placeable : map.getPlaceables()) {
-            if (placeable instanceof Obstacle) {
-                renderer.render((Obstacle)placeable);
-            }
-            else if (placeable instanceof Unit) {
-                renderer.render((Unit)placeable);
-            }
-            else if (placeable instanceof Building) {
-                renderer.render((Building) placeable);
-            }
-            else if (placeable instanceof Decoration) {
-                renderer.render((Decoration)placeable);
-            }
-        }
-
-        currentPlayerMode.renderGui(g, getSize(), font);
-
-        RenderingHelper.drawBorder(g, getSize(), font, players.get(currentPlayerId));
+        session.getCurrentPlayerMode().renderSelection(g, camera);
 
-        renderer.endRendering();
-    }
-
-    // "Brutalne" przełączenie tryby gry pomiędzy opcjami debugowymi.
-    private void updateModeSelection() {
-        Player player = players.get(currentPlayerId);
-        ControlsProvider controlsProvider = player.getControls();
-
-        if (controlsProvider.isButtonDown(ActionButton.MENU_1)) {
-            System.out.println("Wybrano tryb rozgrywki");
-            currentPlayerMode = new SelectionPlayerMode(player, this, map);
-        }
-        else if (controlsProvider.isButtonDown(ActionButton.MENU_2)) {
-            System.out.println("Wybrano tryb umieszczania jednostek");
-            currentPlayerMode = new DebugUnitsPlacingPlayerMode(player, this, map);
-        }
-        else if (controlsProvider.isButtonDown(ActionButton.MENU_3)) {
-            System.out.println("Wybrano tryb umieszczania budynków");
-            currentPlayerMode = new DebugBuildingsPlacingPlayerMode(player, this, map);
-        }
-        else if (controlsProvider.isButtonDown(ActionButton.MENU_4)) {
-            System.out.println("Wybrano tryb umieszczania innych obiektów");
-            currentPlayerMode = new DebugOthersPlacingPlayerMode(player, this, map);
-        }
-        else if (controlsProvider.isButtonDown(ActionButton.MENU_5)) {
-            System.out.println("Wybrano tryb edycji terenu");
-            currentPlayerMode = new DebugChangeTerrainPlayerMode(player, this, map);
-        }
-    }
-
-    @Override
-    public void onPlayerModeChanged(PlayerMode playerMode) {
-        this.currentPlayerMode = playerMode;
-    }
+        // Narysuj obiekty
+        snapshot.draw(g, camera.x, camera.y, alpha);
 
-    @Override
-    public void addAction(Action action) {
-        this.actions.add(action);
-    }
-
-    private void initializePlayer(Player player, String name, Color color, int team, Tile gordPosition) {
-        player.setName(name);
-        player.setColor(color.getRed(), color.getGreen(), color.getBlue());
-        player.setTeam(team);
-
-        player.setTribeLevel(Configuration.INITIAL_TRIBE_LEVEL);
-        player.setFood(Configuration.INITIAL_FOOD);
-        player.setWood(Configuration.INITIAL_WOOD);
-        player.setArmyCapacity(Configuration.INITIAL_ARMY_LIMIT);
-
-        Building building = new Building(Database.Gord, player);
-
-        GameCamera camera = new GameCamera();
-        Point center = map.getTile(0, 0).getCenter();
-        Dimension windowSize = this.getSize();
-        camera.x = - (windowSize.width - center.x) / 2;
-        camera.y = - (windowSize.height - center.y) / 2;
-
-        player.setCamera(camera);
-
-        PlaceableData model = building.getPlaceableData();
-        Point tileCenter = gordPosition.getCenter();
-        //String textureName = model.getModelName();
-        //BufferedImage texture = ContentManager.getModel(textureName, ObjectState.NORMAL);
-
-        //if (texture != null) {
-        //int textureWidth = (int) (texture.getWidth() * model.getXScale());
-        //int textureHeight = (int) (texture.getHeight() * model.getYScale());
-        int x = tileCenter.x + model.getXTexturePosition();
-        int y = tileCenter.y + model.getYTexturePosition();
-        camera.x = x - Configuration.WINDOW_WIDTH / 2;
-        camera.y = y - Configuration.WINDOW_HEIGHT / 2;
-        //}
-
-        // TODO: Analogiczne umieszczenie jest w CreateBuildingAction. Wyciągnąć to gdzieś.
-        if (map.tryPlace(building, gordPosition)) {
-            map.addDestructible(building);
-            player.setGord(building);
-            player.addBuilding(building);
-            for (Tile tile : building.getAllTiles()) {
-                for (Placeable decoration : tile.removeDecorations()) {
-                    this.map.removePlaceable(decoration);
-                }
-            }
-            building.setRemainingConstructionTime(0);
-            building.restoreHealth(building.getMaxHealth());
-        }
-
-        Unit leader = new Unit(Database.Hero, player);
-        Tile leaderPosition = map.getTileNeighbor(gordPosition, Direction.BOTTOM);
-        if (leaderPosition != null) { leaderPosition = map.getTileNeighbor(leaderPosition, Direction.BOTTOM); }
-        if (map.tryPlace(leader, leaderPosition)) {
-            map.addDestructible(leader);
-            player.setLeader(leader);
-            player.addUnit(leader);
-            player.increaseArmySize(leader.getUnitData().getRequiredArmySize());
-        }
-    }
+        session.getCurrentPlayerMode().renderGui(g, size, font);
 
-    private void nextPlayer() {
+        RenderingHelper.drawBorder(g, size, font, session.getCurrentPlayer());
 
-        int n = players.size();
-        if (currentPlayerId < n) {
-            Player previousPlayer = players.get(currentPlayerId);
-            previousPlayer.setControls(null);
-            ++currentPlayerId;
-        }
-        if (currentPlayerId == n) {
-            // TODO: Rozegrać turę dla neutralnych, jeśli będą
-            currentPlayerId = 0;
+        if (Configuration.areFrameStatisticsVisible && frameStatistics != null) {
+            RenderingHelper.drawFrameStatistics(g, size, font, frameStatistics);
         }
-
-        Player currentPlayer = players.get(currentPlayerId);
-        currentPlayer.updateResearch();
-        currentPlayer.restoreCommandPoints();
-        currentPlayer.updateUnits();     // Jednostka może umrzeć zanim wybuduje
-        currentPlayer.getResources();    // Nowo wybudowany budynek nie dostarcza jeszcze surowców
-        currentPlayer.updateBuildings();
-        currentPlayer.setControls(controlsProvider);
-        currentPlayerMode = new SelectionPlayerMode(currentPlayer, this, map);
-
-        updateVisibleTiles();
     }
 }
@@ -0,0 +1,241 @@
+package swarogi.game;
+
+import swarogi.common.Configuration;
+import swarogi.data.Database;
+import swarogi.enums.ActionButton;
+import swarogi.enums.Direction;
+import swarogi.interfaces.Action;
+import swarogi.interfaces.ControlsProvider;
+import swarogi.interfaces.Placeable;
+import swarogi.interfaces.PlaceableData;
+import swarogi.interfaces.PlayerModeChangeListener;
+import swarogi.models.*;
+import swarogi.playermodes.*;
+
+import java.awt.*;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/* Stan rozgrywki (mapa, gracze, kolejka akcji) oraz przebieg tur - bez rysowania i bez okna.
+ * Może być sterowana przez tryby gracza (update) albo bezpośrednio (addAction, runActions, endTurn),
+ * np. w symulacjach uruchamianych z java.awt.headless=true. */
+public class GameSession implements PlayerModeChangeListener {
+
+    private final GameMap map;
+    private final ArrayList<Player> players;
+    private final ArrayDeque<Action> actions;
+    private final ControlsProvider controlsProvider;
+    private int currentPlayerId;
+    private PlayerMode currentPlayerMode;
+    private int turn;
+    private boolean instantActions;
+
+    public GameSession(GameMap map, ControlsProvider controls) {
+        this.map = map;
+        this.controlsProvider = controls;
+        this.actions = new ArrayDeque<>();
+        this.players = new ArrayList<>();
+
+        List<Tile> playersPosition = map.getPlayerPositions();
+        int n = Math.min(playersPosition.size(), Configuration.MAX_PLAYERS);
+
+        for (int i = 0; i < n; ++i) {
+            Player player = new Player();
+            initializePlayer(player, "Gracz " + Integer.toString(i + 1), Configuration.PLAYER_COLORS.get(i), i, playersPosition.get(i));
+            this.players.add(player);
+        }
+
+        currentPlayerId = players.size();
+
+        nextPlayer();
+    }
+
+    public GameMap getMap() { return map; }
+    public List<Player> getPlayers() { return Collections.unmodifiableList(players); }
+    public Player getCurrentPlayer() { return players.get(currentPlayerId); }
+    public PlayerMode getCurrentPlayerMode() { return currentPlayerMode; }
+    public ControlsProvider getControls() { return controlsProvider; }
+
+    // Liczba rozpoczętych tur (tura każdego gracza liczona osobno).
+    public int getTurn() { return turn; }
+
+    // Jeden krok logiki: tryb gracza, akcje i ewentualne zakończenie tury.
+    public void update() {
+        updateModeSelection();
+
+        currentPlayerMode.update();
+
+        updateActions();
+
+        if (controlsProvider.isButtonDown(ActionButton.END_TURN)) {
+            endTurn();
+        }
+    }
+
+    public void updateActions() {
+        if (!currentPlayerMode.isPausingGameplay()) {
+            stepActions();
+        }
+    }
+
+    // Wykonuje wszystkie oczekujące akcje do końca (bez podziału na kroki).
+    public void runActions() {
+        while (!actions.isEmpty()) {
+            stepActions();
+        }
+    }
+
+    public boolean hasPendingActions() { return !actions.isEmpty(); }
+
+    // Akcje wykonywane są w całości w jednym kroku, bez czekania na animacje.
+    public void setInstantActions(boolean instantActions) { this.instantActions = instantActions; }
+    public boolean areActionsInstant() { return instantActions; }
+
+    public void endTurn() {
+        nextPlayer();
+    }
+
+    @Override
+    public void onPlayerModeChanged(PlayerMode playerMode) {
+        this.currentPlayerMode = playerMode;
+    }
+
+    @Override
+    public void addAction(Action action) {
+        this.actions.add(action);
+    }
+
+    private void stepActions() {
+        while (!actions.isEmpty()) {
+            Action currentAction = actions.peek();
+            if (!currentAction.hasStarted()) {
+                if (currentAction.canBeExecuted()) {
+                    currentAction.start();
+                }
+                else {
+                    currentAction.abort();
+                    actions.poll();
+                    break;
+                }
+            }
+            if (instantActions && !currentAction.isCompleted()) {
+                currentAction.resolve();
+            }
+            if (currentAction.isCompleted()) {
+                currentAction.finish();
+                actions.poll();
+            }
+            else {
+                currentAction.update();
+                break;
+            }
+        }
+    }
+
+    // "Brutalne" przełączenie tryby gry pomiędzy opcjami debugowymi.
+    private void updateModeSelection() {
+        Player player = players.get(currentPlayerId);
+        ControlsProvider controlsProvider = player.getControls();
+
+        if (controlsProvider.isButtonDown(ActionButton.MENU_1)) {
+            System.out.println("Wybrano tryb rozgrywki");
+            currentPlayerMode = new SelectionPlayerMode(player, this, map);
+        }
+        else if (controlsProvider.isButtonDown(ActionButton.MENU_2)) {
+            System.out.println("Wybrano tryb umieszczania jednostek");
+            currentPlayerMode = new DebugUnitsPlacingPlayerMode(player, this, map);
+        }
+        else if (controlsProvider.isButtonDown(ActionButton.MENU_3)) {
+            System.out.println("Wybrano tryb umieszczania budynków");
+            currentPlayerMode = new DebugBuildingsPlacingPlayerMode(player, this, map);
+        }
+        else if (controlsProvider.isButtonDown(ActionButton.MENU_4)) {
+            System.out.println("Wybrano tryb umieszczania innych obiektów");
+            currentPlayerMode = new DebugOthersPlacingPlayerMode(player, this, map);
+        }
+        else if (controlsProvider.isButtonDown(ActionButton.MENU_5)) {
+            System.out.println("Wybrano tryb edycji terenu");
+            currentPlayerMode = new DebugChangeTerrainPlayerMode(player, this, map);
+        }
+    }
+
+    private void initializePlayer(Player player, String name, Color color, int team, Tile gordPosition) {
+        player.setName(name);
+        player.setColor(color.getRed(), color.getGreen(), color.getBlue());
+        player.setTeam(team);
+
+        player.setTribeLevel(Configuration.INITIAL_TRIBE_LEVEL);
+        player.setFood(Configuration.INITIAL_FOOD);
+        player.setWood(Configuration.INITIAL_WOOD);
+        player.setArmyCapacity(Configuration.INITIAL_ARMY_LIMIT);
+
+        Building building = new Building(Database.Gord, player);
+
+        GameCamera camera = new GameCamera();
+        player.setCamera(camera);
+
+        PlaceableData model = building.getPlaceableData();
+        Point tileCenter = gordPosition.getCenter();
+        //String textureName = model.getModelName();
+        //BufferedImage texture = ContentManager.getModel(textureName, ObjectState.NORMAL);
+
+        //if (texture != null) {
+        //int textureWidth = (int) (texture.getWidth() * model.getXScale());
+        //int textureHeight = (int) (texture.getHeight() * model.getYScale());
+        int x = tileCenter.x + model.getXTexturePosition();
+        int y = tileCenter.y + model.getYTexturePosition();
+        camera.x = x - Configuration.WINDOW_WIDTH / 2;
+        camera.y = y - Configuration.WINDOW_HEIGHT / 2;
+        //}
+
+        // TODO: Analogiczne umieszczenie jest w CreateBuildingAction. Wyciągnąć to gdzieś.
+        if (map.tryPlace(building, gordPosition)) {
+            map.addDestructible(building);
+            player.setGord(building);
+            player.addBuilding(building);
+            for (Tile tile : building.getAllTiles()) {
+                for (Placeable decoration : tile.removeDecorations()) {
+                    this.map.removePlaceable(decoration);
+                }
+            }
+            building.setRemainingConstructionTime(0);
+            building.restoreHealth(building.getMaxHealth());
+        }
+
+        Unit leader = new Unit(Database.Hero, player);
+        Tile leaderPosition = map.getTileNeighbor(gordPosition, Direction.BOTTOM);
+        if (leaderPosition != null) { leaderPosition = map.getTileNeighbor(leaderPosition, Direction.BOTTOM); }
+        if (map.tryPlace(leader, leaderPosition)) {
+            map.addDestructible(leader);
+            player.setLeader(leader);
+            player.addUnit(leader);
+            player.increaseArmySize(leader.getUnitData().getRequiredArmySize());
+        }
+    }
+
+    private void nextPlayer() {
+
+        int n = players.size();
+        if (currentPlayerId < n) {
+            Player previousPlayer = players.get(currentPlayerId);
+            previousPlayer.setControls(null);
+            ++currentPlayerId;
+        }
+        if (currentPlayerId == n) {
+            // TODO: Rozegrać turę dla neutralnych, jeśli będą
+            currentPlayerId = 0;
+        }
+
+        Player currentPlayer = players.get(currentPlayerId);
+        currentPlayer.updateResearch();
+        currentPlayer.restoreCommandPoints();
+        currentPlayer.updateUnits();     // Jednostka może umrzeć zanim wybuduje
+        currentPlayer.getResources();    // Nowo wybudowany budynek nie dostarcza jeszcze surowców
+        currentPlayer.updateBuildings();
+        currentPlayer.setControls(controlsProvider);
+        currentPlayerMode = new SelectionPlayerMode(currentPlayer, this, map);
+        ++turn;
+    }
+}
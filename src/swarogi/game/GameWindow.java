@@ -3,17 +3,43 @@ package swarogi.game;
 import swarogi.common.Configuration;
 
 import javax.swing.*;
+import java.awt.*;
 
 public class GameWindow extends JFrame {
 
     GamePanel currentPanel = null;
+    private JPanel loadingPanel;
+    private JProgressBar loadingBar;
 
     public void setPanel(GamePanel panel) {
         if (currentPanel != null) {
             remove(currentPanel);
         }
+        if (loadingPanel != null) {
+            remove(loadingPanel);
+            loadingPanel = null;
+            loadingBar = null;
+        }
         currentPanel = panel;
         add(panel);
+        validate();
+    }
+
+    // Pasek postępu widoczny podczas wczytywania zasobów (do czasu ustawienia panelu gry).
+    public void showLoadingScreen() {
+        loadingBar = new JProgressBar(0, 100);
+        loadingBar.setStringPainted(true);
+        loadingPanel = new JPanel(new GridBagLayout());
+        loadingPanel.setBackground(new Color(32, 32, 32));
+        loadingPanel.add(loadingBar);
+        add(loadingPanel);
+    }
+
+    public void setLoadingProgress(float progress) {
+        JProgressBar bar = loadingBar;
+        if (bar != null) {
+            SwingUtilities.invokeLater(() -> bar.setValue((int)(progress * 100)));
+        }
     }
 
     public GameWindow() {
@@ -21,6 +47,7 @@ public class GameWindow extends JFrame {
         this.setSize(Configuration.WINDOW_WIDTH, Configuration.WINDOW_HEIGHT);
         this.setTitle(Configuration.WINDOW_TITLE);
         this.setExtendedState(JFrame.MAXIMIZED_BOTH);
+        this.setIgnoreRepaint(true); // Okno rysowane jest aktywnie przez pętlę gry
         // this.setUndecorated(true); // Ukrywa pasek
         this.setLocationRelativeTo(null);
     }
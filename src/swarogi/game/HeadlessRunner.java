@@ -0,0 +1,82 @@
+package swarogi.game;
+
+import swarogi.actions.MovementAction;
+import swarogi.common.Configuration;
+import swarogi.common.ContentManager;
+import swarogi.common.WindowSize;
+import swarogi.data.Database;
+import swarogi.engine.MapLoader;
+import swarogi.engine.Pathfinding;
+import swarogi.models.Player;
+import swarogi.models.Unit;
+
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+/* Rozgrywka bez okna - każdy gracz w swojej turze przesuwa wszystkie jednostki na losowe osiągalne pola.
+ * Użycie: java -Djava.awt.headless=true swarogi.game.HeadlessRunner [mapa] [liczba tur] [ziarno] */
+public class HeadlessRunner {
+
+    public static void main(String[] args) {
+        String mapPath = args.length > 0 ? args[0] : "maps/map01.txt";
+        int turns = args.length > 1 ? Integer.parseInt(args[1]) : 10000;
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : 0L;
+
+        System.setProperty("java.awt.headless", "true");
+        WindowSize.setWindowSizeProvider(() -> new Dimension(Configuration.WINDOW_WIDTH, Configuration.WINDOW_HEIGHT));
+
+        ContentManager.loadContent();
+        Database.initialize();
+
+        GameMap map = MapLoader.loadMap(mapPath);
+        if (map == null) { return; }
+
+        GameSession session = new GameSession(map, new ScriptedControls());
+        session.setInstantActions(true);
+        Random random = new Random(seed);
+
+        long start = System.nanoTime();
+        int moves = 0;
+        for (int i = 0; i < turns; ++i) {
+            moves += playTurn(session, random);
+            session.endTurn();
+        }
+        long elapsed = System.nanoTime() - start;
+
+        double seconds = elapsed / 1e9;
+        System.out.println(String.format("Rozegrano %d tur (%d ruchów) w %.3f s - %.0f tur/s",
+                turns, moves, seconds, turns / seconds));
+        for (Player player : session.getPlayers()) {
+            System.out.println(player.getName() + ": jednostek " + player.getUnits().size());
+        }
+    }
+
+    private static int playTurn(GameSession session, Random random) {
+        int moves = 0;
+        Player player = session.getCurrentPlayer();
+        List<Tile> accessibleTiles = new ArrayList<>();
+
+        for (Unit unit : new ArrayList<>(player.getUnits())) {
+            if (!unit.isAlive() || unit.getTile() == null) { continue; }
+
+            Pathfinding pathfinding = new Pathfinding(unit.getTile(), unit.getSteps());
+            accessibleTiles.clear();
+            accessibleTiles.addAll(pathfinding.getAccessibleTiles());
+            accessibleTiles.remove(unit.getTile());
+            if (accessibleTiles.isEmpty()) { continue; }
+
+            // Kolejność zbioru nie jest ustalona - sortowanie zapewnia powtarzalność dla danego ziarna
+            accessibleTiles.sort(Comparator.comparingInt(Tile::getIndex));
+            Tile target = accessibleTiles.get(random.nextInt(accessibleTiles.size()));
+
+            unit.setPath(pathfinding.getPathTo(target));
+            session.addAction(new MovementAction(unit, true));
+            session.runActions();
+            if (unit.getTile() == target) { ++moves; }
+        }
+        return moves;
+    }
+}
@@ -0,0 +1,102 @@
+package swarogi.game;
+
+import swarogi.common.ContentManager;
+import swarogi.enums.ObjectState;
+import swarogi.interfaces.Placeable;
+import swarogi.interfaces.PlaceableData;
+
+import java.awt.image.BufferedImage;
+import java.util.*;
+
+/* Obiekty na mapie uporządkowane w kolejności rysowania (rosnąca współrzędna y, a przy równych - kolejność dodania).
+ * Klucz sortowania jest zapamiętywany dla każdego obiektu, więc dodanie, usunięcie i przesunięcie obiektu
+ * kosztuje O(log n) zamiast ponownego sortowania całej listy. */
+class PlaceablesDepthList extends AbstractCollection<Placeable> {
+
+    private final TreeSet<Entry> ordered;
+    private final HashMap<Placeable, Entry> entries;
+    private long nextSequence;
+
+    PlaceablesDepthList() {
+        this.ordered = new TreeSet<>(ENTRY_ORDER);
+        this.entries = new HashMap<>();
+    }
+
+    @Override
+    public boolean add(Placeable placeable) {
+        if (entries.containsKey(placeable)) { return false; }
+        Entry entry = new Entry(placeable, computeSortKey(placeable), nextSequence++);
+        entries.put(placeable, entry);
+        ordered.add(entry);
+        return true;
+    }
+
+    @Override
+    public boolean remove(Object placeable) {
+        Entry entry = entries.remove(placeable);
+        if (entry == null) { return false; }
+        ordered.remove(entry);
+        return true;
+    }
+
+    @Override
+    public boolean contains(Object placeable) { return entries.containsKey(placeable); }
+
+    // Przestawia obiekt po zmianie pola (pozostałe obiekty zachowują swoje położenie).
+    void update(Placeable placeable) {
+        Entry entry = entries.get(placeable);
+        if (entry == null) { return; }
+        int sortKey = computeSortKey(placeable);
+        if (sortKey != entry.sortKey) {
+            ordered.remove(entry);
+            entry.sortKey = sortKey;
+            ordered.add(entry);
+        }
+    }
+
+    @Override
+    public Iterator<Placeable> iterator() {
+        Iterator<Entry> iterator = ordered.iterator();
+        return new Iterator<Placeable>() {
+            @Override
+            public boolean hasNext() { return iterator.hasNext(); }
+
+            @Override
+            public Placeable next() { return iterator.next().placeable; }
+        };
+    }
+
+    @Override
+    public int size() { return entries.size(); }
+
+    static int computeSortKey(Placeable placeable) {
+        PlaceableData placeableData = placeable.getPlaceableData();
+        BufferedImage texture = ContentManager.getModel(placeableData.getModelName(), ObjectState.NORMAL);
+        if (texture != null && placeable.getTile() != null) {
+            return placeable.getTile().getTopLeft().y +
+                    (int)(texture.getHeight() * placeableData.getYScale()) / 2
+                    + placeableData.getYTexturePosition();
+        }
+        return Integer.MIN_VALUE;
+    }
+
+    static int compare(int sortKey1, long sequence1, int sortKey2, long sequence2) {
+        int result = Integer.compare(sortKey1, sortKey2);
+        return result != 0 ? result : Long.compare(sequence1, sequence2);
+    }
+
+    private static final Comparator<Entry> ENTRY_ORDER =
+            (e1, e2) -> compare(e1.sortKey, e1.sequence, e2.sortKey, e2.sequence);
+
+    private static class Entry {
+        final Placeable placeable;
+        final long sequence;
+        int sortKey;
+
+        Entry(Placeable placeable, int sortKey, long sequence) {
+            this.placeable = placeable;
+            this.sortKey = sortKey;
+            this.sequence = sequence;
+        }
+    }
+}
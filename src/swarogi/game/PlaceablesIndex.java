@@ -0,0 +1,209 @@
+package swarogi.game;
+
+import swarogi.common.Configuration;
+import swarogi.common.ContentManager;
+import swarogi.datamodels.Model;
+import swarogi.interfaces.Destructible;
+import swarogi.interfaces.DestructibleData;
+import swarogi.interfaces.Placeable;
+import swarogi.interfaces.PlaceableData;
+import swarogi.models.Decoration;
+import swarogi.models.Unit;
+
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+
+/* Równomierna siatka komórek (w pikselach mapy), w których zapisane są obiekty, których obszar
+ * rysowania nachodzi na daną komórkę. Pozwala pobrać tylko obiekty widoczne w oknie kamery. */
+class PlaceablesIndex {
+
+    private final int cellSize;
+    private final int cellsX;
+    private final int cellsY;
+    private final List<Entry>[] cells;
+    private final HashMap<Placeable, Entry> entries;
+    private final ArrayList<Entry> queryResult;
+    private int queryStamp;
+    private long nextSequence;
+
+    @SuppressWarnings("unchecked")
+    PlaceablesIndex(int mapWidth, int mapHeight) {
+        this.cellSize = Configuration.PLACEABLES_INDEX_CELL_SIZE;
+        this.cellsX = Math.max(1, (mapWidth + cellSize - 1) / cellSize);
+        this.cellsY = Math.max(1, (mapHeight + cellSize - 1) / cellSize);
+        this.cells = (List<Entry>[])new List<?>[cellsX * cellsY];
+        for (int i = 0; i < cells.length; ++i) {
+            cells[i] = new ArrayList<>();
+        }
+        this.entries = new HashMap<>();
+        this.queryResult = new ArrayList<>();
+    }
+
+    void add(Placeable placeable) {
+        if (placeable.getTile() == null || entries.containsKey(placeable)) { return; }
+        Entry entry = new Entry(placeable, nextSequence++);
+        entries.put(placeable, entry);
+        insert(entry);
+    }
+
+    boolean remove(Placeable placeable) {
+        Entry entry = entries.remove(placeable);
+        if (entry == null) { return false; }
+        erase(entry);
+        return true;
+    }
+
+    // Wywoływane po zmianie pola obiektu - obiekty spoza indeksu są pomijane.
+    void update(Placeable placeable) {
+        Entry entry = entries.get(placeable);
+        if (entry == null) { return; }
+        erase(entry);
+        if (placeable.getTile() != null) {
+            insert(entry);
+        }
+        else {
+            entries.remove(placeable);
+        }
+    }
+
+    /* Dopisuje do listy obiekty, których obszar rysowania nachodzi na podany prostokąt,
+     * w kolejności rysowania (rosnąca współrzędna y, a przy równych - kolejność dodania) */
+    void query(int x, int y, int width, int height, List<Placeable> result) {
+        if (++queryStamp == Integer.MAX_VALUE) {
+            for (Entry entry : entries.values()) { entry.stamp = 0; }
+            queryStamp = 1;
+        }
+        int x2 = x + width;
+        int y2 = y + height;
+        int firstCellX = clamp(Math.floorDiv(x, cellSize), cellsX);
+        int lastCellX = clamp(Math.floorDiv(x2, cellSize), cellsX);
+        int firstCellY = clamp(Math.floorDiv(y, cellSize), cellsY);
+        int lastCellY = clamp(Math.floorDiv(y2, cellSize), cellsY);
+
+        queryResult.clear();
+        for (int i = firstCellX; i <= lastCellX; ++i) {
+            for (int j = firstCellY; j <= lastCellY; ++j) {
+                for (Entry entry : cells[i * cellsY + j]) {
+                    if (entry.stamp != queryStamp) {
+                        entry.stamp = queryStamp;
+                        if (entry.x1 < x2 && x < entry.x2 && entry.y1 < y2 && y < entry.y2) {
+                            queryResult.add(entry);
+                        }
+                    }
+                }
+            }
+        }
+
+        queryResult.sort(ENTRY_ORDER);
+        for (Entry entry : queryResult) {
+            result.add(entry.placeable);
+        }
+        queryResult.clear();
+    }
+
+    private void insert(Entry entry) {
+        computeBounds(entry);
+        entry.sortKey = PlaceablesDepthList.computeSortKey(entry.placeable);
+        entry.firstCellX = clamp(Math.floorDiv(entry.x1, cellSize), cellsX);
+        entry.lastCellX = clamp(Math.floorDiv(entry.x2 - 1, cellSize), cellsX);
+        entry.firstCellY = clamp(Math.floorDiv(entry.y1, cellSize), cellsY);
+        entry.lastCellY = clamp(Math.floorDiv(entry.y2 - 1, cellSize), cellsY);
+        for (int i = entry.firstCellX; i <= entry.lastCellX; ++i) {
+            for (int j = entry.firstCellY; j <= entry.lastCellY; ++j) {
+                cells[i * cellsY + j].add(entry);
+            }
+        }
+    }
+
+    private void erase(Entry entry) {
+        for (int i = entry.firstCellX; i <= entry.lastCellX; ++i) {
+            for (int j = entry.firstCellY; j <= entry.lastCellY; ++j) {
+                cells[i * cellsY + j].remove(entry);
+            }
+        }
+    }
+
+    private static int clamp(int cell, int cellsCount) {
+        return Math.max(0, Math.min(cellsCount - 1, cell));
+    }
+
+    // Obszar, który może zostać zamalowany przez obiekt (wszystkie stany tekstury, pasek życia, odbicie jednostek).
+    private static void computeBounds(Entry entry) {
+        Placeable placeable = entry.placeable;
+        PlaceableData model = placeable.getPlaceableData();
+        Point center = placeable.getTile().getCenter();
+        Model textures = ContentManager.getModel(model.getModelName());
+
+        int width = 0, height = 0;
+        if (textures != null) {
+            width = (int)(textures.getMaxWidth() * model.getXScale());
+            height = (int)(textures.getMaxHeight() * model.getYScale());
+        }
+
+        int xPosition = Math.abs(model.getXTexturePosition()); // Jednostki mogą być rysowane w odbiciu lustrzanym
+        int x1 = center.x - width / 2 - xPosition;
+        int x2 = center.x + width / 2 + xPosition + 1;
+        int y1 = center.y - height / 2 + model.getYTexturePosition();
+        int y2 = y1 + height + 1;
+
+        if (placeable instanceof Destructible) {
+            DestructibleData destructibleData = ((Destructible)placeable).getDestructibleData();
+            int hpBarWidth = destructibleData.getHpBarWidth() / 2 + 1;
+            int hpBarY = center.y + model.getYTexturePosition() + destructibleData.getHpBarPositionY();
+            int markHeight = ContentManager.leaderMark != null ? ContentManager.leaderMark.getHeight() : 0;
+            int markWidth = ContentManager.leaderMark != null ? ContentManager.leaderMark.getWidth() / 2 : 0;
+            x1 = Math.min(x1, center.x - Math.max(hpBarWidth, markWidth));
+            x2 = Math.max(x2, center.x + Math.max(hpBarWidth, markWidth) + 1);
+            y1 = Math.min(y1, hpBarY + Configuration.LEADER_MARK_TRANSLATION_Y - Configuration.HP_BAR_HEIGHT - markHeight);
+            y2 = Math.max(y2, hpBarY + Configuration.HP_BAR_HEIGHT + 1);
+        }
+
+        if (model.isMovable()) { // Podczas ruchu jednostka jest przesuwana w stronę sąsiedniego pola
+            x1 -= Configuration.TILE_WIDTH - Configuration.TILE_SLANT_WIDTH;
+            x2 += Configuration.TILE_WIDTH - Configuration.TILE_SLANT_WIDTH;
+            y1 -= Configuration.TILE_HEIGHT;
+            y2 += Configuration.TILE_HEIGHT;
+        }
+
+        if (placeable instanceof Unit) { // Animacja ruchu po trasie, którą jednostka już pokonała
+            Unit unit = (Unit)placeable;
+            x1 -= unit.getAnimationRangeX();
+            x2 += unit.getAnimationRangeX();
+            y1 -= unit.getAnimationRangeY();
+            y2 += unit.getAnimationRangeY();
+        }
+
+        if (placeable instanceof Decoration) { // Dekoracje rysowane są z własnym przesunięciem względem pola
+            Decoration decoration = (Decoration)placeable;
+            x1 += decoration.getCustomTranslationX();
+            x2 += decoration.getCustomTranslationX();
+            y1 += decoration.getCustomTranslationY();
+            y2 += decoration.getCustomTranslationY();
+        }
+
+        entry.x1 = x1;
+        entry.x2 = x2;
+        entry.y1 = y1;
+        entry.y2 = y2;
+    }
+
+    private static final Comparator<Entry> ENTRY_ORDER =
+            (e1, e2) -> PlaceablesDepthList.compare(e1.sortKey, e1.sequence, e2.sortKey, e2.sequence);
+
+    private static class Entry {
+        final Placeable placeable;
+        final long sequence;
+        int sortKey;
+        int x1, y1, x2, y2;
+        int firstCellX, lastCellX, firstCellY, lastCellY;
+        int stamp;
+
+        Entry(Placeable placeable, long sequence) {
+            this.placeable = placeable;
+            this.sequence = sequence;
+        }
+    }
+}
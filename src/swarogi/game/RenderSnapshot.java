@@ -0,0 +1,114 @@
+package swarogi.game;
+
+import swarogi.common.Sprite;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+
+/* Opis klatki przygotowany przez logikę gry: lista poleceń rysowania (tekstura lub kolor prostokąta wraz
+ * z położeniem w pikselach mapy) oraz położenia widocznych pól. Tablice są używane ponownie w kolejnych
+ * klatkach, więc przygotowanie opisu nie tworzy nowych obiektów. Po opublikowaniu opis nie jest zmieniany
+ * aż do ponownego przekazania go logice. */
+public final class RenderSnapshot {
+
+    private static final int INITIAL_CAPACITY = 256;
+
+    private Object[] resources;     // Sprite, BufferedImage lub Color (wypełniony prostokąt)
+    private int[] bounds;           // x, y, szerokość, wysokość (ujemna szerokość - odbicie lustrzane)
+    private float[] motions;        // Przesunięcie od poprzedniego kroku logiki (do interpolacji)
+    private int count;
+
+    private int[] tiles;            // Lewe górne rogi widocznych pól
+    private int tilesCount;
+
+    private float motionX;
+    private float motionY;
+
+    RenderSnapshot() {
+        this.resources = new Object[INITIAL_CAPACITY];
+        this.bounds = new int[INITIAL_CAPACITY * 4];
+        this.motions = new float[INITIAL_CAPACITY * 2];
+        this.tiles = new int[INITIAL_CAPACITY * 2];
+    }
+
+    void clear() {
+        Arrays.fill(resources, 0, count, null);
+        count = 0;
+        tilesCount = 0;
+        motionX = 0;
+        motionY = 0;
+    }
+
+    // Przesunięcie nadawane kolejnym poleceniom (np. jednostce w trakcie ruchu).
+    void setMotion(float motionX, float motionY) {
+        this.motionX = motionX;
+        this.motionY = motionY;
+    }
+
+    void addImage(BufferedImage image, int x, int y, int width, int height) {
+        add(image, x, y, width, height);
+    }
+
+    void addSprite(Sprite sprite, int x, int y, int width, int height) {
+        add(sprite, x, y, width, height);
+    }
+
+    void addRect(Color color, int x, int y, int width, int height) {
+        add(color, x, y, width, height);
+    }
+
+    void addTile(int x, int y) {
+        if (tilesCount * 2 == tiles.length) {
+            tiles = Arrays.copyOf(tiles, tiles.length * 2);
+        }
+        tiles[tilesCount * 2] = x;
+        tiles[tilesCount * 2 + 1] = y;
+        ++tilesCount;
+    }
+
+    private void add(Object resource, int x, int y, int width, int height) {
+        if (count == resources.length) {
+            resources = Arrays.copyOf(resources, count * 2);
+            bounds = Arrays.copyOf(bounds, count * 8);
+            motions = Arrays.copyOf(motions, count * 4);
+        }
+        resources[count] = resource;
+        int offset = count * 4;
+        bounds[offset] = x;
+        bounds[offset + 1] = y;
+        bounds[offset + 2] = width;
+        bounds[offset + 3] = height;
+        motions[count * 2] = motionX;
+        motions[count * 2 + 1] = motionY;
+        ++count;
+    }
+
+    // Rysuje polecenia w kolejności dodania - alpha to część kroku logiki, która upłynęła od aktualizacji.
+    public void draw(Graphics g, int cameraX, int cameraY, float alpha) {
+        float lag = 1.0f - alpha;
+        for (int i = 0; i < count; ++i) {
+            int offset = i * 4;
+            int x = bounds[offset] - cameraX - Math.round(motions[i * 2] * lag);
+            int y = bounds[offset + 1] - cameraY - Math.round(motions[i * 2 + 1] * lag);
+            Object resource = resources[i];
+            if (resource instanceof Sprite) {
+                ((Sprite)resource).draw(g, x, y);
+            }
+            else if (resource instanceof BufferedImage) {
+                g.drawImage((BufferedImage)resource, x, y, null); // Obrazy są już w docelowym rozmiarze
+            }
+            else {
+                g.setColor((Color)resource);
+                g.fillRect(x, y, bounds[offset + 2], bounds[offset + 3]);
+            }
+        }
+    }
+
+    // Obraz pola powinien mieć już rozmiar pola (rysowany jest bez skalowania).
+    public void drawTiles(Graphics g, BufferedImage image, int cameraX, int cameraY) {
+        for (int i = 0; i < tilesCount; ++i) {
+            g.drawImage(image, tiles[i * 2] - cameraX, tiles[i * 2 + 1] - cameraY, null);
+        }
+    }
+}
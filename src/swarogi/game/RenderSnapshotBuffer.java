@@ -0,0 +1,43 @@
+package swarogi.game;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/* Potrójne buforowanie opisów klatek bez blokad: logika wypełnia własny opis i zamienia go z opisem
+ * środkowym, a rysowanie zabiera opis środkowy tylko wtedy, gdy jest nowszy od aktualnie rysowanego. */
+public final class RenderSnapshotBuffer {
+
+    private final AtomicReference<Slot> middle;
+    private Slot writing;
+    private Slot reading;
+
+    public RenderSnapshotBuffer() {
+        this.writing = new Slot();
+        this.reading = new Slot();
+        this.middle = new AtomicReference<>(new Slot());
+    }
+
+    // Opis do wypełnienia przez logikę (wyczyszczony).
+    RenderSnapshot beginWrite() {
+        writing.snapshot.clear();
+        return writing.snapshot;
+    }
+
+    void publish() {
+        writing.fresh = true;
+        writing = middle.getAndSet(writing);
+    }
+
+    // Najnowszy opublikowany opis (lub poprzednio rysowany, jeśli nie pojawił się nowy).
+    RenderSnapshot acquire() {
+        if (middle.get().fresh) {
+            reading = middle.getAndSet(reading);
+            reading.fresh = false;
+        }
+        return reading.snapshot;
+    }
+
+    private static final class Slot {
+        final RenderSnapshot snapshot = new RenderSnapshot();
+        volatile boolean fresh;
+    }
+}
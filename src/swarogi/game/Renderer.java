@@ -2,6 +2,7 @@ package swarogi.game;
 
 import swarogi.common.Configuration;
 import swarogi.common.ContentManager;
+import swarogi.common.Sprite;
 import swarogi.common.TerrainExtensionInfo;
 import swarogi.datamodels.UnitData;
 import swarogi.enums.*;
@@ -20,11 +21,19 @@ public class Renderer {
 
     private Graphics graphics;
     private GameCamera camera;
+    private float alpha;
+    private RenderSnapshot snapshot;
     private int tileWidth;
     private int tileHeight;
     private int tileSlant;
 
     public void startRendering(Graphics graphics, GameCamera camera) {
+        startRendering(graphics, camera, 1.0f);
+    }
+
+    // alpha - część kroku logiki, która upłynęła od ostatniej aktualizacji (do interpolacji ruchu jednostek)
+    public void startRendering(Graphics graphics, GameCamera camera, float alpha) {
+        this.alpha = alpha;
         this.graphics = graphics;
         this.camera = camera;
         this.tileWidth = Configuration.TILE_WIDTH;
@@ -32,9 +41,42 @@ public class Renderer {
         this.tileSlant = Configuration.TILE_SLANT_WIDTH;
     }
 
+    // Zamiast rysować, zapisuje polecenia rysowania obiektów (w pikselach mapy) do opisu klatki.
+    public void startRecording(RenderSnapshot snapshot) {
+        startRendering(null, new GameCamera(), 1.0f);
+        this.snapshot = snapshot;
+    }
+
     public void endRendering() {
         this.graphics = null;
         this.camera = null;
+        this.snapshot = null;
+    }
+
+    // Tekstura rysowana jest z arkusza tekstur, gdzie leży już przeskalowana (i ewentualnie odbita), bez skalowania.
+    private void drawImage(BufferedImage image, int x, int y, int width, int height) {
+        Sprite sprite = ContentManager.getSprite(image, width, height);
+        if (sprite == null) { return; }
+        if (width < 0) {
+            x += width;
+            width = -width;
+        }
+        if (snapshot != null) {
+            snapshot.addSprite(sprite, x, y, width, height);
+        }
+        else {
+            sprite.draw(graphics, x, y);
+        }
+    }
+
+    private void fillRect(Color color, int x, int y, int width, int height) {
+        if (snapshot != null) {
+            snapshot.addRect(color, x, y, width, height);
+        }
+        else {
+            graphics.setColor(color);
+            graphics.fillRect(x, y, width, height);
+        }
     }
 
     public void render(Obstacle obstacle) {
@@ -47,10 +89,10 @@ public class Renderer {
         if (texture != null) {
             int textureWidth = (int)(texture.getWidth() * model.getXScale());
             int textureHeight = (int)(texture.getHeight() * model.getYScale());
-            graphics.drawImage(texture,
+            drawImage(texture,
                     tileCenter.x - textureWidth / 2 + model.getXTexturePosition(),
                     tileCenter.y - textureHeight / 2 + model.getYTexturePosition(),
-                    textureWidth, textureHeight, null);
+                    textureWidth, textureHeight);
         }
     }
 
@@ -64,10 +106,10 @@ public class Renderer {
         if (texture != null) {
             int textureWidth = (int)(texture.getWidth() * model.getXScale());
             int textureHeight = (int)(texture.getHeight() * model.getYScale());
-            graphics.drawImage(texture,
+            drawImage(texture,
                     tileCenter.x - textureWidth / 2 + model.getXTexturePosition() + decoration.getCustomTranslationX(),
                     tileCenter.y - textureHeight / 2 + model.getYTexturePosition() + decoration.getCustomTranslationY(),
-                    textureWidth, textureHeight, null);
+                    textureWidth, textureHeight);
         }
     }
 
@@ -85,36 +127,45 @@ public class Renderer {
         if (texture != null && textureBase != null) {
             int textureWidth = (int)(texture.getWidth() * model.getXScale());
             int textureHeight = (int)(texture.getHeight() * model.getYScale());
+            int translationX = (int)unit.getInterpolatedTranslationX(alpha);
+            int translationY = (int)unit.getInterpolatedTranslationY(alpha);
             int x, y;
 
+            if (snapshot != null) { // Przy rysowaniu opisu klatki położenie jednostki zostanie zinterpolowane
+                snapshot.setMotion(unit.getCustomTranslationX() - unit.getInterpolatedTranslationX(0),
+                        unit.getCustomTranslationY() - unit.getInterpolatedTranslationY(0));
+            }
+
             if (unit.getFacingDirection() == UnitDirection.LEFT) {
-                x = tileCenter.x - textureWidth / 2 + model.getXTexturePosition() + (int)unit.getCustomTranslationX();
-                y = tileCenter.y - textureHeight / 2 + model.getYTexturePosition() + (int)unit.getCustomTranslationY();
+                x = tileCenter.x - textureWidth / 2 + model.getXTexturePosition() + translationX;
+                y = tileCenter.y - textureHeight / 2 + model.getYTexturePosition() + translationY;
 
-                graphics.drawImage(textureBase, x, y, textureWidth, textureHeight, null);
-                graphics.drawImage(texture, x, y, textureWidth, textureHeight, null);
+                drawImage(textureBase, x, y, textureWidth, textureHeight);
+                drawImage(texture, x, y, textureWidth, textureHeight);
             }
             else {
-                x = tileCenter.x - textureWidth / 2 - model.getXTexturePosition() + (int)unit.getCustomTranslationX();
-                y = tileCenter.y - textureHeight / 2 + model.getYTexturePosition() + (int)unit.getCustomTranslationY();
+                x = tileCenter.x - textureWidth / 2 - model.getXTexturePosition() + translationX;
+                y = tileCenter.y - textureHeight / 2 + model.getYTexturePosition() + translationY;
 
-                graphics.drawImage(textureBase, x + textureWidth, y, -textureWidth, textureHeight, null);
-                graphics.drawImage(texture, x + textureWidth, y, -textureWidth, textureHeight, null);
+                drawImage(textureBase, x + textureWidth, y, -textureWidth, textureHeight);
+                drawImage(texture, x + textureWidth, y, -textureWidth, textureHeight);
             }
 
             if (Configuration.areHpBarsVisible) {
-                renderHpBar(unit, tileCenter.x + (int)unit.getCustomTranslationX(),
+                renderHpBar(unit, tileCenter.x + translationX,
                         y + textureHeight / 2);
             }
 
             if (unit.hasCharacteristic(Characteristic.Leader)) {
                 BufferedImage leaderMark = ContentManager.leaderMark;
-                graphics.drawImage(leaderMark,
-                        tileCenter.x + (int)unit.getCustomTranslationX() - leaderMark.getWidth() / 2,
+                drawImage(leaderMark,
+                        tileCenter.x + translationX - leaderMark.getWidth() / 2,
                         y + textureHeight / 2 + model.getHpBarPositionY() + Configuration.LEADER_MARK_TRANSLATION_Y
                                 - (Configuration.HP_BAR_HEIGHT + leaderMark.getHeight()) / 2,
-                        null);
+                        leaderMark.getWidth(), leaderMark.getHeight());
             }
+
+            if (snapshot != null) { snapshot.setMotion(0, 0); }
         }
     }
 
@@ -135,8 +186,8 @@ public class Renderer {
             int x = tileCenter.x - textureWidth / 2 + model.getXTexturePosition();
             int y = tileCenter.y - textureHeight / 2 + model.getYTexturePosition();
 
-            graphics.drawImage(textureBase, x, y, textureWidth, textureHeight, null);
-            graphics.drawImage(texture, x, y, textureWidth, textureHeight, null);
+            drawImage(textureBase, x, y, textureWidth, textureHeight);
+            drawImage(texture, x, y, textureWidth, textureHeight);
 
             if (Configuration.areHpBarsVisible) {
                 renderHpBar(building, x + textureWidth / 2, y + textureHeight / 2);
@@ -151,8 +202,8 @@ public class Renderer {
         TerrainType tileTerrainType = tile.getTerrainType();
         int tileTerrainPriority = tileTerrainType.getTilingPriority();
 
-        graphics.drawImage(ContentManager.getTerrain(tileTerrainType),
-                x, y, tileWidth, tileHeight, null);
+        graphics.drawImage(ContentManager.getScaledImage(ContentManager.getTerrain(tileTerrainType), tileWidth, tileHeight),
+                x, y, null);
 
         Tile neighbor = tile.getNeighbor(Direction.TOP_LEFT);
         if (neighbor != null) {
@@ -252,8 +303,7 @@ public class Renderer {
         x -= w / 2;
         y += model.getHpBarPositionY() - h / 2;
 
-        graphics.setColor(Configuration.HP_BAR_COLOR_BACKGROUND);
-        graphics.fillRect(x - 1, y - 1, w + 2, h + 2);
+        fillRect(Configuration.HP_BAR_COLOR_BACKGROUND, x - 1, y - 1, w + 2, h + 2);
 
         float hpPercentage = destructible.getHealth() / destructible.getMaxHealth();
         Color hpColor;
@@ -278,8 +328,7 @@ public class Renderer {
             hpColor = Configuration.HP_BAR_COLOR_EMPTY;
         }
 
-        graphics.setColor(hpColor);
-        graphics.fillRect(x, y, hpWidth, h);
+        fillRect(hpColor, x, y, hpWidth, h);
     }
 
     private static Color blendColors(Color c1, Color c2, float weight) {
@@ -0,0 +1,82 @@
+package swarogi.game;
+
+import swarogi.enums.ActionButton;
+import swarogi.interfaces.ControlsProvider;
+
+import java.awt.*;
+
+/* Sterowanie bez urządzeń wejścia - stan przycisków i wskaźnika ustawiany jest programowo
+ * (np. przez skrypt testowy albo symulację bez okna). Zmiany widoczne są od następnego kroku. */
+public class ScriptedControls implements ControlsProvider {
+
+    private static final int totalButtons = ActionButton.values().length;
+
+    private final boolean[] oldButtonStates;
+    private final boolean[] newButtonStates;
+    private final boolean[] nextButtonStates;
+    private Point oldPointerPosition;
+    private Point newPointerPosition;
+    private Point nextPointerPosition;
+
+    public ScriptedControls() {
+        oldButtonStates = new boolean[totalButtons];
+        newButtonStates = new boolean[totalButtons];
+        nextButtonStates = new boolean[totalButtons];
+        oldPointerPosition = new Point();
+        newPointerPosition = oldPointerPosition;
+        nextPointerPosition = oldPointerPosition;
+    }
+
+    public void pressButton(ActionButton button) { nextButtonStates[button.getValue()] = true; }
+
+    public void releaseButton(ActionButton button) { nextButtonStates[button.getValue()] = false; }
+
+    public void setPointerPosition(int x, int y) { nextPointerPosition = new Point(x, y); }
+
+    // Odpowiednik GameControls.receiveEvents - przechodzi do następnego kroku.
+    public void step() {
+        oldPointerPosition = newPointerPosition;
+        newPointerPosition = nextPointerPosition;
+        for (int i = 0; i < totalButtons; ++i) {
+            oldButtonStates[i] = newButtonStates[i];
+            newButtonStates[i] = nextButtonStates[i];
+        }
+    }
+
+    @Override
+    public Point getPointerPosition() { return newPointerPosition; }
+
+    @Override
+    public boolean hasMousePositionChanged() {
+        return newPointerPosition.x != oldPointerPosition.x || newPointerPosition.y != oldPointerPosition.y;
+    }
+
+    @Override
+    public boolean isButtonPressed(ActionButton button) {
+        return newButtonStates[button.getValue()];
+    }
+
+    @Override
+    public boolean isButtonDown(ActionButton button) {
+        int buttonValue = button.getValue();
+        return newButtonStates[buttonValue] && !oldButtonStates[buttonValue];
+    }
+
+    @Override
+    public boolean isButtonUp(ActionButton button) {
+        int buttonValue = button.getValue();
+        return !newButtonStates[buttonValue] && oldButtonStates[buttonValue];
+    }
+
+    @Override
+    public ActionButton getFirstSelectedOption() {
+        ActionButton[] values = ActionButton.values();
+        for (int i = ActionButton.OPTION_0.getValue(); i <= ActionButton.OPTION_9.getValue(); ++i) {
+            ActionButton actionButton = values[i];
+            if (isButtonDown(actionButton)) {
+                return actionButton;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,143 @@
+package swarogi.game;
+
+import swarogi.common.Configuration;
+import swarogi.common.ContentManager;
+import swarogi.interfaces.TerrainChangeListener;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/* Teren mapy podzielony na prostokątne fragmenty (w pikselach mapy), z których każdy rysowany jest raz
+ * do obrazu i zapamiętywany. Fragment rysowany jest ponownie tylko po zmianie terenu w jego pobliżu
+ * lub gdy zostanie usunięty z pamięci podręcznej (najdawniej używane fragmenty są usuwane jako pierwsze). */
+class TerrainChunkCache implements TerrainChangeListener {
+
+    // Margines (w polach) uwzględniający rozszerzenia tekstur sąsiednich pól, które wchodzą na obszar fragmentu
+    private static final int TILES_MARGIN = 2;
+
+    private final GameMap map;
+    private final Renderer renderer;
+    private final int chunkTiles;
+    private final int chunkWidth;
+    private final int chunkHeight;
+    private final int chunksX;
+    private final int chunksY;
+    private final LinkedHashMap<Integer, BufferedImage> chunks;
+    private final ArrayList<Tile> chunkTilesBuffer;
+    private int capacity;               // Liczba zapamiętanych fragmentów, zależna od rozmiaru okna
+    private int capacityWidth;
+    private int capacityHeight;
+
+    TerrainChunkCache(GameMap map) {
+        this.map = map;
+        this.renderer = new Renderer();
+        this.chunkTiles = Configuration.TERRAIN_CHUNK_TILES;
+        this.chunkWidth = chunkTiles * (Configuration.TILE_WIDTH - Configuration.TILE_SLANT_WIDTH);
+        this.chunkHeight = chunkTiles * Configuration.TILE_HEIGHT;
+        this.chunksX = (map.getMapWidth() + chunkWidth - 1) / chunkWidth;
+        this.chunksY = (map.getMapHeight() + chunkHeight - 1) / chunkHeight;
+        this.chunks = new LinkedHashMap<Integer, BufferedImage>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, BufferedImage> eldest) {
+                return size() > capacity;
+            }
+        };
+        this.chunkTilesBuffer = new ArrayList<>();
+        this.capacity = Configuration.TERRAIN_CHUNK_CACHE_SIZE;
+        map.addTerrainChangeListener(this);
+    }
+
+    // Rysuje fragmenty terenu widoczne w oknie o podanym rozmiarze.
+    void render(Graphics g, GameCamera camera, Dimension size) {
+        updateCapacity(size);
+
+        int firstChunkX = Math.max(0, Math.floorDiv(camera.x, chunkWidth));
+        int firstChunkY = Math.max(0, Math.floorDiv(camera.y, chunkHeight));
+        int lastChunkX = Math.min(chunksX - 1, Math.floorDiv(camera.x + size.width, chunkWidth));
+        int lastChunkY = Math.min(chunksY - 1, Math.floorDiv(camera.y + size.height, chunkHeight));
+
+        for (int i = firstChunkX; i <= lastChunkX; ++i) {
+            for (int j = firstChunkY; j <= lastChunkY; ++j) {
+                g.drawImage(getChunk(i, j), i * chunkWidth - camera.x, j * chunkHeight - camera.y, null);
+            }
+        }
+    }
+
+    @Override
+    public void onTerrainChanged(Tile tile) {
+        // Zmiana pola wpływa na jego teksturę oraz na rozszerzenia tekstur sąsiadów
+        Point topLeft = tile.getTopLeft();
+        int marginX = TILES_MARGIN * (Configuration.TILE_WIDTH - Configuration.TILE_SLANT_WIDTH);
+        int marginY = TILES_MARGIN * Configuration.TILE_HEIGHT;
+        int firstChunkX = Math.max(0, Math.floorDiv(topLeft.x - marginX, chunkWidth));
+        int firstChunkY = Math.max(0, Math.floorDiv(topLeft.y - marginY, chunkHeight));
+        int lastChunkX = Math.min(chunksX - 1, Math.floorDiv(topLeft.x + Configuration.TILE_WIDTH + marginX, chunkWidth));
+        int lastChunkY = Math.min(chunksY - 1, Math.floorDiv(topLeft.y + Configuration.TILE_HEIGHT + marginY, chunkHeight));
+
+        for (int i = firstChunkX; i <= lastChunkX; ++i) {
+            for (int j = firstChunkY; j <= lastChunkY; ++j) {
+                chunks.remove(i * chunksY + j);
+            }
+        }
+    }
+
+    /* Pamięć podręczna musi pomieścić wszystkie fragmenty widoczne w oknie (oraz pas fragmentów wokół niego
+     * przy przesuwaniu kamery) - inaczej fragmenty potrzebne w tej samej klatce byłyby usuwane i rysowane od nowa. */
+    private void updateCapacity(Dimension size) {
+        if (size.width == capacityWidth && size.height == capacityHeight) { return; }
+        capacityWidth = size.width;
+        capacityHeight = size.height;
+        int visibleChunksX = (size.width + chunkWidth - 1) / chunkWidth + 2;
+        int visibleChunksY = (size.height + chunkHeight - 1) / chunkHeight + 2;
+        capacity = Math.max(Configuration.TERRAIN_CHUNK_CACHE_SIZE, visibleChunksX * visibleChunksY);
+    }
+
+    private BufferedImage getChunk(int chunkX, int chunkY) {
+        int key = chunkX * chunksY + chunkY;
+        BufferedImage chunk = chunks.get(key);
+        if (chunk == null) {
+            chunk = bakeChunk(chunkX, chunkY);
+            chunks.put(key, chunk);
+        }
+        return chunk;
+    }
+
+    private BufferedImage bakeChunk(int chunkX, int chunkY) {
+        BufferedImage image = ContentManager.createCompatibleImage(chunkWidth, chunkHeight, Transparency.TRANSLUCENT);
+
+        // Pola z fragmentu wraz z marginesem, w kolejności kolumn - tak jak przy rysowaniu całej mapy
+        int firstTileX = Math.max(0, chunkX * chunkTiles - TILES_MARGIN);
+        int firstTileY = Math.max(0, chunkY * chunkTiles - TILES_MARGIN);
+        int lastTileX = Math.min(map.getTilesX() - 1, (chunkX + 1) * chunkTiles + TILES_MARGIN);
+        int lastTileY = Math.min(map.getTilesY() - 1, (chunkY + 1) * chunkTiles + TILES_MARGIN);
+
+        List<Tile> tiles = chunkTilesBuffer;
+        tiles.clear();
+        for (int i = firstTileX; i <= lastTileX; ++i) {
+            for (int j = firstTileY; j <= lastTileY; ++j) {
+                tiles.add(map.getTile(i, j));
+            }
+        }
+        tiles.sort(Comparator.comparingInt((Tile t) -> t.getTerrainType().getTilingPriority()));
+
+        GameCamera camera = new GameCamera();
+        camera.x = chunkX * chunkWidth;
+        camera.y = chunkY * chunkHeight;
+
+        Graphics2D graphics = image.createGraphics();
+        renderer.startRendering(graphics, camera);
+        for (Tile tile : tiles) {
+            renderer.render(tile);
+        }
+        renderer.endRendering();
+        graphics.dispose();
+        tiles.clear();
+
+        return image;
+    }
+}
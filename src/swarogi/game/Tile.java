@@ -11,22 +11,24 @@ import swarogi.models.Decoration;
 
 import java.awt.*;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.HashSet;
-import java.util.stream.Collectors;
 
 public class Tile {
 
     GameMap map;
     final int xIdx;
     final int yIdx;
+    final int index;                        // xIdx * tilesY + yIdx - pozycja pola w tablicach przeszukiwania
     private TerrainType terrainType;
     private TerrainType virtualTerrainType; // Pomimo, że pole wygląda na jeden typ, traktowane jest jako drugi (np. gdy jest na nim most).
 
-    public boolean isMovementAllowed() { return movementFlag; }
+    public boolean isMovementAllowed() { return map.occupancy.isMovementAllowed(index); }
 
     public boolean isPlacingAllowed(PlacingType placingType) {
         // TODO: Na razie tak o, żeby było czytelnie co się dzieje.
+        boolean placingFlag = map.occupancy.isPlacingAllowed(index);
         if (placingType == PlacingType.ONLY_LAND) {
             return placingFlag && !virtualTerrainType.isWater() && virtualTerrainType.isPlacingAllowed();
         }
@@ -40,7 +42,7 @@ public class Tile {
     }
 
     public boolean isBuildingAllowed(PlacingType placingType) {
-        if (buildingObstacles.size() > 0) { return false; }
+        if (!map.occupancy.isBuildingAllowed(index)) { return false; }
         if (placingType == PlacingType.ONLY_LAND) {
             return !virtualTerrainType.isWater() && virtualTerrainType.isBuildingAllowed();
         }
@@ -54,7 +56,7 @@ public class Tile {
     }
 
     public boolean canBeAdjacentToBuilding(PlacingType placingType) {
-        if (!buildingAdjacencyFlag) { return false; }
+        if (!map.occupancy.isAdjacencyAllowed(index)) { return false; }
         if (placingType == PlacingType.ONLY_LAND) {
             return !virtualTerrainType.isWater() && virtualTerrainType.isPlacingAllowed();
         }
@@ -67,22 +69,22 @@ public class Tile {
         return false;
     }
 
-    private HashSet<Placeable> movementObstacles;
-    private HashSet<Placeable> buildingObstacles;
-    private HashSet<Placeable> selectables;
-    private boolean placingFlag;
-    private boolean movementFlag;
-    private boolean buildingAdjacencyFlag;
+    // Role obiektu na polu (obiekt może pełnić kilka naraz)
+    private static final byte ROLE_SELECTABLE = 1;
+    private static final byte ROLE_BUILDING_OBSTACLE = 2;
+    private static final byte ROLE_MOVEMENT_OBSTACLE = 4;
+
+    // Obiekty na polu w kolejności dodania wraz z ich rolami. Tablice tworzone dopiero przy pierwszym obiekcie,
+    // bo większość pól jest pusta. Flagi i liczniki pola przechowuje mapa (TileOccupancy).
+    private Placeable[] occupants;
+    private byte[] roles;
+    private int occupantsCount;
 
     public Tile(GameMap map, int xIdx, int yIdx) {
         this.map = map;
         this.xIdx = xIdx;
         this.yIdx = yIdx;
-        this.placingFlag = true;
-        this.buildingAdjacencyFlag = true;
-        this.movementObstacles = new HashSet<>();
-        this.buildingObstacles = new HashSet<>();
-        this.selectables = new HashSet<>();
+        this.index = xIdx * map.getTilesY() + yIdx;
     }
 
     public Point getTopLeft() {
@@ -110,49 +112,63 @@ public class Tile {
     public TerrainType getTerrainType() { return  this.terrainType; }
     public void setTerrainType(TerrainType terrainType) {
         this.terrainType = terrainType;
-        this.movementFlag = terrainType.isPassable();
+        map.occupancy.setMovementAllowed(index, terrainType.isPassable());
         this.virtualTerrainType = terrainType;
         // TODO: Uwzględnić to, co było już na polu.
+        map.onTerrainChanged(this);
     }
 
     // TODO: Refaktoryzacja - te metody chyba nie powinny być publiczne
     public void addMovementObstacle(Placeable placeable) {
-        movementObstacles.add(placeable);
-        this.movementFlag = virtualTerrainType.isPassable() && movementObstacles.size() == 0;
+        if (addRole(placeable, ROLE_MOVEMENT_OBSTACLE)) {
+            map.occupancy.addMovementObstacle(index);
+        }
+        updateMovementFlag();
     }
 
     public void removeMovementObstacle(Placeable placeable) {
-        movementObstacles.remove(placeable);
-        this.movementFlag = virtualTerrainType.isPassable() && movementObstacles.size() == 0;
+        if (removeRole(placeable, ROLE_MOVEMENT_OBSTACLE)) {
+            map.occupancy.removeMovementObstacle(index);
+        }
+        updateMovementFlag();
     }
 
-    public void addBuildingObstacle(Placeable placeable) { buildingObstacles.add(placeable); }
+    public void addBuildingObstacle(Placeable placeable) {
+        if (addRole(placeable, ROLE_BUILDING_OBSTACLE)) {
+            map.occupancy.addBuildingObstacle(index);
+        }
+    }
 
-    public void removeBuildingObstacle(Placeable placeable) { buildingObstacles.remove(placeable); }
+    public void removeBuildingObstacle(Placeable placeable) {
+        if (removeRole(placeable, ROLE_BUILDING_OBSTACLE)) {
+            map.occupancy.removeBuildingObstacle(index);
+        }
+    }
 
     public void addSelectable(Placeable placeable) {
-        selectables.add(placeable);
         PlaceableData model = placeable.getPlaceableData();
-        placingFlag &= model.isIgnoringPlacingRules();
-        buildingAdjacencyFlag &= model.isMovable() || model.isIgnoringPlacingRules();
-        TerrainType newTerrainType = placeable.getPlaceableData().getInducedTerrainType();
+        if (addRole(placeable, ROLE_SELECTABLE)) {
+            map.occupancy.addSelectable(index, isBlockingPlacing(model), isBlockingAdjacency(model));
+        }
+        TerrainType newTerrainType = model.getInducedTerrainType();
         if (newTerrainType != null) {
             this.virtualTerrainType = newTerrainType;
-            this.movementFlag = virtualTerrainType.isPassable() && movementObstacles.size() == 0;
+            updateMovementFlag();
         }
     }
 
     public void removeSelectable(Placeable placeable) {
-        selectables.remove(placeable);
-        placingFlag = selectables.stream().allMatch(s -> s.getPlaceableData().isIgnoringPlacingRules());
-        buildingAdjacencyFlag = selectables.stream().allMatch(p ->
-                p.getPlaceableData().isMovable() || p.getPlaceableData().isIgnoringPlacingRules());
-        if (virtualTerrainType != terrainType && placeable.getPlaceableData().getInducedTerrainType() != null) {
-            for (Placeable p : selectables) {
-                TerrainType newTerrainType = p.getPlaceableData().getInducedTerrainType();
+        PlaceableData model = placeable.getPlaceableData();
+        if (removeRole(placeable, ROLE_SELECTABLE)) {
+            map.occupancy.removeSelectable(index, isBlockingPlacing(model), isBlockingAdjacency(model));
+        }
+        if (virtualTerrainType != terrainType && model.getInducedTerrainType() != null) {
+            for (int i = 0; i < occupantsCount; ++i) {
+                if ((roles[i] & ROLE_SELECTABLE) == 0) { continue; }
+                TerrainType newTerrainType = occupants[i].getPlaceableData().getInducedTerrainType();
                 if (newTerrainType != null) {
                     this.virtualTerrainType = newTerrainType;
-                    this.movementFlag = virtualTerrainType.isPassable() && movementObstacles.size() == 0;
+                    updateMovementFlag();
                     return;
                 }
             }
@@ -160,31 +176,118 @@ public class Tile {
     }
 
     public HashSet<Placeable> getPlaceables() {
-        return (HashSet<Placeable>)selectables.clone();
+        HashSet<Placeable> result = new HashSet<>();
+        for (int i = 0; i < occupantsCount; ++i) {
+            if ((roles[i] & ROLE_SELECTABLE) != 0) { result.add(occupants[i]); }
+        }
+        return result;
     }
 
     public List<Placeable> getSelectables() {
-        return selectables.stream()
-                .filter(x -> x.getPlaceableData().isSelectable())
-                .collect(Collectors.toList());
+        List<Placeable> result = new ArrayList<>();
+        for (int i = 0; i < occupantsCount; ++i) {
+            if ((roles[i] & ROLE_SELECTABLE) != 0 && occupants[i].getPlaceableData().isSelectable()) {
+                result.add(occupants[i]);
+            }
+        }
+        return result;
     }
 
     public List<Destructible> getDestructibles() {
-        return selectables.stream()
-                .filter(s -> s instanceof Destructible)
-                .map(s -> (Destructible)s)
-                .collect(Collectors.toList());
+        List<Destructible> result = new ArrayList<>();
+        collectDestructibles(result);
+        return result;
+    }
+
+    // Dopisuje cele znajdujące się na polu do podanej listy (bez tworzenia strumieni i list pośrednich).
+    public void collectDestructibles(List<Destructible> result) {
+        for (int i = 0; i < occupantsCount; ++i) {
+            if ((roles[i] & ROLE_SELECTABLE) != 0 && occupants[i] instanceof Destructible) {
+                result.add((Destructible)occupants[i]);
+            }
+        }
+    }
+
+    // Dopisuje cele znajdujące się na polu do wyniku zbiorczego zapytania o cele w zasięgu.
+    void collectDestructibles(DestructiblesInRange result, int distance) {
+        for (int i = 0; i < occupantsCount; ++i) {
+            if ((roles[i] & ROLE_SELECTABLE) != 0 && occupants[i] instanceof Destructible) {
+                result.add((Destructible)occupants[i], distance);
+            }
+        }
     }
 
     public List<Placeable> removeDecorations() {
-        // TODO: Dwa razy to samo. Jakoś ładniej, prościej.
-        List<Placeable> result = this.selectables.stream()
-                .filter(p -> p instanceof Decoration)
-                .collect(Collectors.toList());
-        this.selectables.removeIf(p -> p instanceof Decoration);
+        List<Placeable> result = new ArrayList<>();
+        for (int i = occupantsCount - 1; i >= 0; --i) {
+            if ((roles[i] & ROLE_SELECTABLE) != 0 && occupants[i] instanceof Decoration) {
+                Placeable decoration = occupants[i];
+                PlaceableData model = decoration.getPlaceableData();
+                result.add(0, decoration);
+                removeRole(decoration, ROLE_SELECTABLE);
+                map.occupancy.removeSelectable(index, isBlockingPlacing(model), isBlockingAdjacency(model));
+            }
+        }
         return result;
     }
 
+    private void updateMovementFlag() {
+        map.occupancy.setMovementAllowed(index,
+                virtualTerrainType.isPassable() && map.occupancy.getMovementObstacles(index) == 0);
+    }
+
+    private static boolean isBlockingPlacing(PlaceableData model) { return !model.isIgnoringPlacingRules(); }
+
+    private static boolean isBlockingAdjacency(PlaceableData model) {
+        return !(model.isMovable() || model.isIgnoringPlacingRules());
+    }
+
+    // Nadaje obiektowi rolę na polu. Zwraca false, jeśli obiekt już ją miał (jak dodanie do zbioru).
+    private boolean addRole(Placeable placeable, byte role) {
+        int i = findOccupant(placeable);
+        if (i < 0) {
+            if (occupants == null) {
+                occupants = new Placeable[2];
+                roles = new byte[2];
+            }
+            else if (occupantsCount == occupants.length) {
+                occupants = Arrays.copyOf(occupants, occupantsCount * 2);
+                roles = Arrays.copyOf(roles, occupantsCount * 2);
+            }
+            i = occupantsCount++;
+            occupants[i] = placeable;
+            roles[i] = 0;
+        }
+        if ((roles[i] & role) != 0) { return false; }
+        roles[i] |= role;
+        return true;
+    }
+
+    // Odbiera obiektowi rolę na polu. Zwraca false, jeśli obiekt jej nie miał (jak usunięcie ze zbioru).
+    private boolean removeRole(Placeable placeable, byte role) {
+        int i = findOccupant(placeable);
+        if (i < 0 || (roles[i] & role) == 0) { return false; }
+        roles[i] &= ~role;
+        if (roles[i] == 0) {
+            --occupantsCount;
+            System.arraycopy(occupants, i + 1, occupants, i, occupantsCount - i);
+            System.arraycopy(roles, i + 1, roles, i, occupantsCount - i);
+            occupants[occupantsCount] = null;
+            if (occupantsCount == 0) {
+                occupants = null;
+                roles = null;
+            }
+        }
+        return true;
+    }
+
+    private int findOccupant(Placeable placeable) {
+        for (int i = 0; i < occupantsCount; ++i) {
+            if (occupants[i] == placeable) { return i; }
+        }
+        return -1;
+    }
+
     public List<Tile> getNeighbors() { return map.getTileNeighbors(this); }
 
     public Tile getNeighbor(Direction direction) { return map.getTileNeighbor(this, direction); }
@@ -216,7 +319,10 @@ public class Tile {
     public static List<Tile> getAdjacentTiles(List<Tile> tiles) {
         ArrayList<Tile> result = new ArrayList<>();
         for (Tile tile : tiles) {
-            for (Tile neighbor : tile.getNeighbors()) {
+            for (int k = 0; k < GameMap.NEIGHBORS_COUNT; ++k) {
+                int neighborIndex = tile.map.getNeighborIndex(tile.index, k);
+                if (neighborIndex < 0) { continue; }
+                Tile neighbor = tile.map.getTileByIndex(neighborIndex);
                 if (!tiles.contains(neighbor) && !result.contains(neighbor)) {
                     result.add(neighbor);
                 }
@@ -229,5 +335,6 @@ public class Tile {
     public GameMap getMap() { return map; }
     public int getIdX() { return xIdx; }
     public int getIdY() { return yIdx; }
+    public int getIndex() { return index; }
 
 }
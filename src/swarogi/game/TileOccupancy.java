@@ -0,0 +1,104 @@
+package swarogi.game;
+
+/* Stan zajętości wszystkich pól mapy przechowywany w tablicach (indeks pola xIdx * tilesY + yIdx) zamiast
+ * w zbiorach obiektów każdego pola:
+ *   flagi pól (ruch, umieszczanie, budowanie, sąsiedztwo budynku) - mapy bitowe,
+ *   liczby obiektów blokujących ruch, budowanie, umieszczanie i sąsiedztwo budynku - liczniki na pole.
+ * Flaga ruchu zależy też od typu terenu, więc jest ustawiana przez pole (Tile) przy każdej zmianie. */
+final class TileOccupancy {
+
+    private static final int MAX_COUNT = 0xFF;
+
+    private final long[] movementAllowed;
+    private final long[] placingAllowed;
+    private final long[] buildingAllowed;
+    private final long[] adjacencyAllowed;
+
+    private final byte[] movementObstacles;
+    private final byte[] buildingObstacles;
+    private final byte[] placingBlockers;
+    private final byte[] adjacencyBlockers;
+
+    TileOccupancy(int tileCount) {
+        int words = (tileCount + 63) >>> 6;
+        this.movementAllowed = new long[words];
+        this.placingAllowed = new long[words];
+        this.buildingAllowed = new long[words];
+        this.adjacencyAllowed = new long[words];
+        this.movementObstacles = new byte[tileCount];
+        this.buildingObstacles = new byte[tileCount];
+        this.placingBlockers = new byte[tileCount];
+        this.adjacencyBlockers = new byte[tileCount];
+
+        // Puste pola - można umieszczać, budować i stawiać obok budynki
+        for (int i = 0; i < tileCount; ++i) {
+            set(placingAllowed, i);
+            set(buildingAllowed, i);
+            set(adjacencyAllowed, i);
+        }
+    }
+
+    boolean isMovementAllowed(int index) { return get(movementAllowed, index); }
+    boolean isPlacingAllowed(int index) { return get(placingAllowed, index); }
+    boolean isBuildingAllowed(int index) { return get(buildingAllowed, index); }
+    boolean isAdjacencyAllowed(int index) { return get(adjacencyAllowed, index); }
+
+    int getMovementObstacles(int index) { return movementObstacles[index] & MAX_COUNT; }
+
+    void setMovementAllowed(int index, boolean value) { assign(movementAllowed, index, value); }
+
+    void addMovementObstacle(int index) { increment(movementObstacles, index); }
+    void removeMovementObstacle(int index) { decrement(movementObstacles, index); }
+
+    void addBuildingObstacle(int index) {
+        increment(buildingObstacles, index);
+        clear(buildingAllowed, index);
+    }
+
+    void removeBuildingObstacle(int index) {
+        assign(buildingAllowed, index, decrement(buildingObstacles, index) == 0);
+    }
+
+    // Obiekt na polu może blokować umieszczanie innych obiektów i stawianie obok budynków.
+    void addSelectable(int index, boolean blocksPlacing, boolean blocksAdjacency) {
+        if (blocksPlacing) {
+            increment(placingBlockers, index);
+            clear(placingAllowed, index);
+        }
+        if (blocksAdjacency) {
+            increment(adjacencyBlockers, index);
+            clear(adjacencyAllowed, index);
+        }
+    }
+
+    void removeSelectable(int index, boolean blocksPlacing, boolean blocksAdjacency) {
+        if (blocksPlacing) {
+            assign(placingAllowed, index, decrement(placingBlockers, index) == 0);
+        }
+        if (blocksAdjacency) {
+            assign(adjacencyAllowed, index, decrement(adjacencyBlockers, index) == 0);
+        }
+    }
+
+    private static void increment(byte[] counts, int index) {
+        int count = counts[index] & MAX_COUNT;
+        if (count == MAX_COUNT) {
+            throw new IllegalStateException("Zbyt wiele obiektów na polu " + index);
+        }
+        counts[index] = (byte)(count + 1);
+    }
+
+    private static int decrement(byte[] counts, int index) {
+        int count = (counts[index] & MAX_COUNT) - 1;
+        counts[index] = (byte)count;
+        return count;
+    }
+
+    private static boolean get(long[] bits, int index) { return (bits[index >>> 6] & (1L << index)) != 0; }
+    private static void set(long[] bits, int index) { bits[index >>> 6] |= 1L << index; }
+    private static void clear(long[] bits, int index) { bits[index >>> 6] &= ~(1L << index); }
+
+    private static void assign(long[] bits, int index, boolean value) {
+        if (value) { set(bits, index); } else { clear(bits, index); }
+    }
+}
@@ -4,6 +4,7 @@ import swarogi.common.Configuration;
 import swarogi.common.ContentManager;
 import swarogi.datamodels.AttackData;
 import swarogi.datamodels.EffectData;
+import swarogi.game.FrameStatistics;
 import swarogi.models.Building;
 import swarogi.models.Player;
 import swarogi.models.Unit;
@@ -246,6 +247,20 @@ public final class RenderingHelper {
     }
 
 
+    public static void drawFrameStatistics(Graphics g, Dimension size, Font font, FrameStatistics statistics) {
+        String text = String.format("FPS: %.1f  p50: %.2f ms  p99: %.2f ms  zgubione klatki: %d  pominięte kroki: %d",
+                statistics.getAverageFps(), statistics.getMedian(), statistics.getPercentile99(),
+                statistics.getDroppedFrames(), statistics.getSkippedUpdates());
+        g.setFont(font);
+        FontMetrics metrics = g.getFontMetrics();
+        int x = ContentManager.borderLeft.getWidth();
+        int y = TOP_PANEL_HEIGHT + metrics.getHeight();
+        g.setColor(Color.BLACK);
+        g.drawString(text, x + 1, y + 1);
+        g.setColor(Color.WHITE);
+        g.drawString(text, x, y);
+    }
+
     public static void drawCenteredImage(Graphics g, BufferedImage image, int x, int y) {
         g.drawImage(image, x - image.getWidth() / 2, y - image.getHeight() / 2, null);
     }
@@ -8,4 +8,11 @@ public interface Action {
     void update();
     void finish();
     void abort();
+
+    // Wykonanie rozpoczętej akcji w całości, bez animacji (symulacje, tury komputera).
+    default void resolve() {
+        while (!isCompleted()) {
+            update();
+        }
+    }
 }
@@ -36,5 +36,7 @@ public interface PlaceableData {
     TerrainType getInducedTerrainType();
 
     List<Characteristic> getCharacteristics();
+    // Cechy jako maska bitowa (Characteristic.getMask).
+    long getCharacteristicsMask();
 }
 
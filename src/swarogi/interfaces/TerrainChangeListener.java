@@ -0,0 +1,7 @@
+package swarogi.interfaces;
+
+import swarogi.game.Tile;
+
+public interface TerrainChangeListener {
+    void onTerrainChanged(Tile tile);
+}
@@ -0,0 +1,75 @@
+package swarogi.models;
+
+import java.awt.*;
+import java.util.List;
+
+/* Wyłącznie wizualne przejście jednostki po trasie, którą w logice gry już pokonała.
+ * Punkty trasy zapisane są względem środka pola docelowego, więc położenie jest przesunięciem rysowania. */
+class MovementInterpolator {
+
+    private final float[] xs;
+    private final float[] ys;
+    private final int maxOffsetX;
+    private final int maxOffsetY;
+    private int segment;
+    private float progress; // Droga przebyta na bieżącym odcinku
+    private float x;
+    private float y;
+
+    // Trasa zawiera środki kolejnych pól, od pola początkowego do docelowego.
+    MovementInterpolator(List<Point> centers) {
+        int n = centers.size();
+        Point target = centers.get(n - 1);
+        xs = new float[n];
+        ys = new float[n];
+        int maxX = 0, maxY = 0;
+        for (int i = 0; i < n; ++i) {
+            Point p = centers.get(i);
+            xs[i] = p.x - target.x;
+            ys[i] = p.y - target.y;
+            maxX = Math.max(maxX, Math.abs(p.x - target.x));
+            maxY = Math.max(maxY, Math.abs(p.y - target.y));
+        }
+        maxOffsetX = maxX;
+        maxOffsetY = maxY;
+        x = xs[0];
+        y = ys[0];
+    }
+
+    boolean isFinished() { return segment >= xs.length - 1; }
+
+    float getX() { return x; }
+    float getY() { return y; }
+
+    // Kierunek w poziomie bieżącego odcinka (-1, 0 lub 1).
+    int getDirectionX() {
+        if (isFinished()) { return 0; }
+        return (int)Math.signum(xs[segment + 1] - xs[segment]);
+    }
+
+    int getMaxOffsetX() { return maxOffsetX; }
+    int getMaxOffsetY() { return maxOffsetY; }
+
+    // Przesuwa jednostkę o podaną odległość wzdłuż trasy.
+    void update(float distance) {
+        while (distance > 0 && !isFinished()) {
+            float dx = xs[segment + 1] - xs[segment];
+            float dy = ys[segment + 1] - ys[segment];
+            float length = (float)Math.sqrt(dx * dx + dy * dy);
+
+            if (progress + distance >= length) {
+                distance -= length - progress;
+                progress = 0;
+                ++segment;
+                x = xs[segment];
+                y = ys[segment];
+            }
+            else {
+                progress += distance;
+                distance = 0;
+                x = xs[segment] + dx / length * progress;
+                y = ys[segment] + dy / length * progress;
+            }
+        }
+    }
+}
@@ -17,6 +17,7 @@ import java.awt.*;
 import java.awt.image.BufferedImage;
 import java.util.List;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -25,7 +26,6 @@ public class Player {
     private String name;
     private int team; // TODO: Zrobić z tego klasę
     private Color color;
-    private HashMap<String, BufferedImage> textureBases;
 
     private int tribeLevel;
     private int commandPoints;
@@ -47,10 +47,10 @@ public class Player {
     private Map<UnitData, List<Integer>> customEnabledSkills;
 
     public Player() {
-        this.textureBases = new HashMap<>();
         this.units = new ArrayList<>();
         this.buildings = new ArrayList<>();
-        this.upgrades = new HashMap<>();
+        this.upgradeLevels = new int[Database.UpgradesCount];
+        Arrays.fill(upgradeLevels, -1);
         this.tribePathsLevels = new HashMap<>();
         this.customEnabledAttacks = new HashMap<>();
         this.customDisabledAttacks = new HashMap<>();
@@ -81,7 +81,7 @@ public class Player {
     public int getMaxCommandPoints() {
         int value = Configuration.BASE_COMMAND_POINTS;
         if (hasUpgrade(Database.IncreasedActionPoints)) {
-            value += (int)getUpgradeValue(Database.IncreasedActionPoints);
+            value += getUpgradeValue(Database.IncreasedActionPoints);
         }
         return value;
     }
@@ -134,7 +134,7 @@ public class Player {
     // TODO: Mapa budynków zapewniajacych surowce?
     public void getResources() {
         if (hasUpgrade(Database.IncreasedResources)) {
-            int value = (int)getUpgradeValue(Database.IncreasedResources);
+            int value = getUpgradeValue(Database.IncreasedResources);
             for (Building building : buildings) {
                 if (building.isReady()) {
                     BuildingData model = building.getModel();
@@ -163,19 +163,7 @@ public class Player {
     }
 
     public BufferedImage getTextureBase(String textureBaseName, ObjectState state) {
-        if (textureBases.containsKey(textureBaseName)) {
-            return textureBases.get(textureBaseName);
-        }
-        else {
-            BufferedImage textureBase = ContentManager.getModelTextureBase(textureBaseName, state);
-            if (textureBase != null) {
-                textureBase = ContentManager.createColoredBaseFromImage(textureBase,
-                        color.getRed(), color.getGreen(), color.getBlue());
-                this.textureBases.put(textureBaseName, textureBase);
-                return textureBase;
-            }
-        }
-        return null;
+        return ContentManager.getTintedTextureBase(textureBaseName, state, color);
     }
 
     public void updateCamera() {
@@ -239,7 +227,8 @@ public class Player {
         }
     }
 
-    private Map<UpgradeData, Integer> upgrades;
+    private int[] upgradeLevels;            // Poziomy rozwinięć według identyfikatora, -1 - brak rozwinięcia
+    private int upgradesVersion;            // Zwiększana przy każdej zmianie rozwinięć (unieważnia statystyki jednostek)
     private Map<TribePath, Integer> tribePathsLevels;
 
     private TribePath currentReseach;
@@ -247,15 +236,17 @@ public class Player {
 
 
     public boolean hasUpgrade(UpgradeData upgrade) {
-        return upgrades.containsKey(upgrade);
+        return upgradeLevels[upgrade.getId()] >= 0;
     }
 
+    public int getUpgradesVersion() { return upgradesVersion; }
+
     public int getUpgradeLevel(UpgradeData upgrade) {
-        return upgrades.get(upgrade);
+        return upgradeLevels[upgrade.getId()];
     }
 
-    public Object getUpgradeValue(UpgradeData upgrade) {
-        return upgrade.getValue(upgrades.get(upgrade));
+    public int getUpgradeValue(UpgradeData upgrade) {
+        return upgrade.getValue(upgradeLevels[upgrade.getId()]);
     }
 
     public int getTribePathLevel(TribePath path) {
@@ -307,14 +298,10 @@ public class Player {
 
     private void updateUpgrades(TribePath path, int level) {
         Map<UpgradeData, Integer> upgrades = Database.TribePaths.get(path).getUpgrades(level);
-        for (UpgradeData upgrade : upgrades.keySet()) {
-            if (this.upgrades.containsKey(upgrade)) {
-                this.upgrades.replace(upgrade, upgrades.get(upgrade));
-            }
-            else {
-                this.upgrades.put(upgrade, upgrades.get(upgrade));
-            }
+        for (Map.Entry<UpgradeData, Integer> upgrade : upgrades.entrySet()) {
+            upgradeLevels[upgrade.getKey().getId()] = upgrade.getValue();
         }
+        ++upgradesVersion;
     }
 
     public List<Integer> getCustomEnabledAttacksFor(UnitData unitData) {
@@ -24,24 +24,40 @@ public class Unit implements Placeable, Destructible, PlayerUnit {
     private Stack<Tile> path;
     private float customTranslationX;
     private float customTranslationY;
+    private float previousTranslationX; // Przesunięcie z poprzedniego kroku logiki (do interpolacji przy rysowaniu)
+    private float previousTranslationY;
     private UnitDirection facingDirection;
+    private MovementInterpolator interpolator;
 
     private Building constructedBuilding;
     Building containgBuilding;
 
-    private HashMap<SkillData, Integer> skillsCooldown;
-    private HashMap<EffectData, Integer> effects;
+    // Indeksowane identyfikatorami z bazy danych: -1 - jednostka nie ma umiejętności, 0 - efekt nie działa
+    private int[] skillsCooldown;
+    private int[] effects;
+
+    // Statystyki z uwzględnieniem rozwinięć i efektów. Przeliczane dopiero przy odczycie po zmianie
+    // rozwinięć gracza (wersja), efektów lub właściciela.
+    private boolean statsValid;
+    private int statsUpgradesVersion;
+    private int maxHealth;
+    private int defense;
+    private int steps;
+    private int meleeDamageBonus;   // Premia procentowa z rozwinięć
+    private int rangedDamageBonus;  // Premia procentowa z rozwinięć
+    private int meleeEffectBonus;   // Premia z efektów
 
     public Unit(UnitData model, Player owner) {
         this.owner = owner;
         this.model = model;
+        this.effects = new int[Database.Effects.length];
         this.health = getMaxHealth();
         this.remainingActionPoints = model.getMaxActions();
         this.facingDirection = UnitDirection.LEFT;
-        this.effects = new HashMap<>();
-        this.skillsCooldown = new HashMap<>();
+        this.skillsCooldown = new int[Database.SkillsCount];
+        Arrays.fill(skillsCooldown, -1);
         for (SkillData skillData : model.getBaseSkills()) {
-            skillsCooldown.put(skillData, skillData.getInitialCooldown());
+            skillsCooldown[skillData.getId()] = skillData.getInitialCooldown();
         }
     }
 
@@ -64,13 +80,29 @@ public class Unit implements Placeable, Destructible, PlayerUnit {
 
     @Override
     public Player getOwner() { return this.owner; }
-    public void setOwner(Player owner) { this.owner = owner; }
+    public void setOwner(Player owner) {
+        this.owner = owner;
+        this.statsValid = false;
+    }
 
     public float getCustomTranslationX() { return customTranslationX; }
     //public void setCustomTranslationX(float value) { this.customTranslationX = value; }
     public float getCustomTranslationY() { return customTranslationY; }
     //public void setCustomTranslationY(float value) { this.customTranslationY = value; }
 
+    public float getInterpolatedTranslationX(float alpha) {
+        return previousTranslationX + (customTranslationX - previousTranslationX) * alpha;
+    }
+    public float getInterpolatedTranslationY(float alpha) {
+        return previousTranslationY + (customTranslationY - previousTranslationY) * alpha;
+    }
+
+    // Wywoływane na początku każdego kroku logiki.
+    public void saveTranslation() {
+        this.previousTranslationX = customTranslationX;
+        this.previousTranslationY = customTranslationY;
+    }
+
     public UnitDirection getFacingDirection() { return facingDirection; }
     //public void setFacingDirection(UnitDirection direction) { this.facingDirection = direction; }
 
@@ -80,65 +112,84 @@ public class Unit implements Placeable, Destructible, PlayerUnit {
 
     public float getMovementSpeed() { return model.getBaseMovementSpeed(); }
     public int getSteps() {
-        return applyValueUpgradeBonus(Database.IncreasedMovement, model.getBaseSteps());
+        validateStats();
+        return steps;
     }
 
     public void updateSkillsCooldown() {
-        for (SkillData skillData : skillsCooldown.keySet()) {
-            int value = skillsCooldown.get(skillData);
-            if (value > 0) {
-                skillsCooldown.replace(skillData, value - 1);
+        for (int i = 0; i < skillsCooldown.length; ++i) {
+            if (skillsCooldown[i] > 0) {
+                --skillsCooldown[i];
             }
         }
     }
 
+    // Jednostka jest w ruchu, dopóki nie pokona trasy i nie zakończy się animacja przejścia.
     public boolean isMoving() {
-        return this.path != null && !this.path.isEmpty();
+        return (this.path != null && !this.path.isEmpty()) || interpolator != null;
     }
     public boolean canMove() { return true; }
     public boolean isAlive() { return health > 0; }
 
-    // TODO: Do przerobienia. Na razie naiwna implementacja.
-    public void updateMovement() {
-        if (isMoving()) {
-            Tile nextGoal = this.path.peek();
-            Point p1 = tile.getCenter();
-            Point p2 = nextGoal.getCenter();
-
-            float dx = p2.x - p1.x;
-            float dy = p2.y - p1.y;
+    /* Przemieszcza jednostkę od razu na koniec trasy (pole po polu). Jeśli animate jest ustawione,
+     * przejście po trasie pokazywane jest później przez interpolator (updateAnimation). */
+    public void resolveMovement(boolean animate) {
+        if (path == null || path.isEmpty()) { return; }
 
-            float length = (float) Math.sqrt(dx * dx + dy * dy);
+        List<Point> centers = animate ? new ArrayList<>() : null;
+        if (animate) { centers.add(tile.getCenter()); }
 
-            if (length < 0.0001f) {
-                path.pop();
-                return;
+        while (!path.isEmpty()) {
+            Tile nextGoal = path.pop();
+            if (nextGoal == tile) { continue; }
+            if (!Movement.place(this, nextGoal)) {
+                path.clear();
+                break;
             }
+            if (animate) { centers.add(nextGoal.getCenter()); }
+        }
 
-            if (dx < 0) {
-                if (facingDirection == UnitDirection.RIGHT) { facingDirection = UnitDirection.LEFT; }
-            }
-            else if (dx > 0) {
-                if (facingDirection == UnitDirection.LEFT) { facingDirection = UnitDirection.RIGHT; }
-            }
+        if (animate && centers.size() > 1) {
+            interpolator = new MovementInterpolator(centers);
+            customTranslationX = interpolator.getX();
+            customTranslationY = interpolator.getY();
+            updateFacingDirection(interpolator.getDirectionX());
+            tile.getMap().onPlaceableMoved(this); // Obszar rysowania obejmuje teraz całą trasę
+        }
+    }
+
+    // Wywoływane w każdym kroku rysowanej rozgrywki - nie wpływa na stan gry.
+    public void updateAnimation() {
+        if (interpolator == null) { return; }
+        interpolator.update(getMovementSpeed());
+        customTranslationX = interpolator.getX();
+        customTranslationY = interpolator.getY();
+        updateFacingDirection(interpolator.getDirectionX());
+        if (interpolator.isFinished()) {
+            stopAnimation();
+        }
+    }
 
-            float speed = getMovementSpeed();
-            float velx = dx / length * speed;
-            float vely = dy / length * speed;
+    public void stopAnimation() {
+        if (interpolator == null) { return; }
+        interpolator = null;
+        customTranslationX = 0;
+        customTranslationY = 0;
+        if (tile != null) { tile.getMap().onPlaceableMoved(this); }
+    }
 
-            // Współrzędne następnego kroku
-            float nextX = customTranslationX + velx;
-            float nextY = customTranslationY + vely;
+    public boolean isAnimating() { return interpolator != null; }
 
-            // Jednostka dotarła do następnego pola
-            if (nextX * nextX + nextY * nextY >= length * length) {
-                Movement.place(this, nextGoal);
-                path.pop();
-            }
-            else {
-                customTranslationX = nextX;
-                customTranslationY = nextY;
-            }
+    // Największe przesunięcie rysowania względem pola w trakcie animacji ruchu.
+    public int getAnimationRangeX() { return interpolator != null ? interpolator.getMaxOffsetX() : 0; }
+    public int getAnimationRangeY() { return interpolator != null ? interpolator.getMaxOffsetY() : 0; }
+
+    private void updateFacingDirection(int directionX) {
+        if (directionX < 0) {
+            if (facingDirection == UnitDirection.RIGHT) { facingDirection = UnitDirection.LEFT; }
+        }
+        else if (directionX > 0) {
+            if (facingDirection == UnitDirection.LEFT) { facingDirection = UnitDirection.RIGHT; }
         }
     }
 
@@ -169,33 +220,27 @@ public class Unit implements Placeable, Destructible, PlayerUnit {
     public float getHealth() { return health; }
     @Override
     public int getMaxHealth() {
-        return applyPercentalUpgradeBonus(Database.IncreasedUnitHealth,  model.getBaseMaxHealth());
+        validateStats();
+        return maxHealth;
     }
     @Override
     public int getDefense() {
-        int def = applyValueUpgradeBonus(Database.IncreasedUnitArmor, model.getBaseDefense());
-        if (effects.containsKey(Database.VolkhvSkillArmorBonus)) {
-            def += Database.VolkhvSkillArmorBonus.getBaseValue();
-        }
-        return def;
+        validateStats();
+        return defense;
     }
 
     public ArmorType getArmorType() { return model.getBaseArmorType(); }
 
     public Point getDamageForAttack(AttackData attack) {
+        validateStats();
         if (attack.getAttackType() == AttackType.Melee) {
-            int minValue = applyPercentalUpgradeBonus(Database.IncreasedMeeleDamage, attack.getMinDamage());
-            int maxValue = applyPercentalUpgradeBonus(Database.IncreasedMeeleDamage, attack.getMaxDamage());
-            if (effects.containsKey(Database.HeroSkillDamageBonus)) {
-                int bonus = Database.HeroSkillDamageBonus.getBaseValue();
-                minValue += bonus;
-                maxValue += bonus;
-            }
+            int minValue = attack.getMinDamage() + meleeDamageBonus * attack.getMinDamage() / 100 + meleeEffectBonus;
+            int maxValue = attack.getMaxDamage() + meleeDamageBonus * attack.getMaxDamage() / 100 + meleeEffectBonus;
             return new Point(minValue, maxValue);
         }
         else { // Ranged
-            int minValue = applyPercentalUpgradeBonus(Database.IncreasedRangedDamage, attack.getMinDamage());
-            int maxValue = applyPercentalUpgradeBonus(Database.IncreasedRangedDamage, attack.getMaxDamage());
+            int minValue = attack.getMinDamage() + rangedDamageBonus * attack.getMinDamage() / 100;
+            int maxValue = attack.getMaxDamage() + rangedDamageBonus * attack.getMaxDamage() / 100;
             return new Point(minValue, maxValue);
         }
     }
@@ -213,6 +258,17 @@ public class Unit implements Placeable, Destructible, PlayerUnit {
 
     @Override
     public void onPositionChanged(Tile tile) {
+        // Poprzednie przesunięcie liczone jest od środka nowego pola, aby rysowanie płynnie przeszło na nowe pole
+        if (this.tile != null && tile != null && Tile.areNeighbors(this.tile, tile)) {
+            Point oldCenter = this.tile.getCenter();
+            Point newCenter = tile.getCenter();
+            previousTranslationX += oldCenter.x - newCenter.x;
+            previousTranslationY += oldCenter.y - newCenter.y;
+        }
+        else {
+            previousTranslationX = 0;
+            previousTranslationY = 0;
+        }
         this.tile = tile;
         this.customTranslationX = 0;
         this.customTranslationY = 0;
@@ -266,31 +322,45 @@ public class Unit implements Placeable, Destructible, PlayerUnit {
 
     public boolean isConstructingBuilding() { return this.constructedBuilding != null; }
 
-    private int applyPercentalUpgradeBonus(UpgradeData upgradeData, int value) {
-        if (getUnitData().hasUpgrade(upgradeData) && owner.hasUpgrade(upgradeData)) {
-            int bonus = (int)owner.getUpgradeValue(upgradeData);
-            value += bonus * value / 100;
+    private void validateStats() {
+        if (!statsValid || statsUpgradesVersion != owner.getUpgradesVersion()) {
+            updateStats();
         }
-        return value;
     }
 
-    private int applyValueUpgradeBonus(UpgradeData upgradeData, int value) {
-        if (getUnitData().hasUpgrade(upgradeData) && owner.hasUpgrade(upgradeData)) {
-            int bonus = (int)owner.getUpgradeValue(upgradeData);
-            value += bonus;
+    private void updateStats() {
+        maxHealth = applyPercentalUpgradeBonus(Database.IncreasedUnitHealth, model.getBaseMaxHealth());
+        defense = applyValueUpgradeBonus(Database.IncreasedUnitArmor, model.getBaseDefense());
+        if (hasEffect(Database.VolkhvSkillArmorBonus)) {
+            defense += Database.VolkhvSkillArmorBonus.getBaseValue();
         }
-        return value;
+        steps = applyValueUpgradeBonus(Database.IncreasedMovement, model.getBaseSteps());
+        meleeDamageBonus = getUpgradeBonus(Database.IncreasedMeeleDamage);
+        rangedDamageBonus = getUpgradeBonus(Database.IncreasedRangedDamage);
+        meleeEffectBonus = hasEffect(Database.HeroSkillDamageBonus) ? Database.HeroSkillDamageBonus.getBaseValue() : 0;
+        statsUpgradesVersion = owner.getUpgradesVersion();
+        statsValid = true;
     }
 
-    public int getSkillCooldown(SkillData skillData) {
-        if (skillsCooldown.containsKey(skillData)) {
-            return skillsCooldown.get(skillData);
+    private int getUpgradeBonus(UpgradeData upgradeData) {
+        if (getUnitData().hasUpgrade(upgradeData) && owner.hasUpgrade(upgradeData)) {
+            return owner.getUpgradeValue(upgradeData);
         }
-        return -1;
+        return 0;
     }
+
+    private int applyPercentalUpgradeBonus(UpgradeData upgradeData, int value) {
+        return value + getUpgradeBonus(upgradeData) * value / 100;
+    }
+
+    private int applyValueUpgradeBonus(UpgradeData upgradeData, int value) {
+        return value + getUpgradeBonus(upgradeData);
+    }
+
+    public int getSkillCooldown(SkillData skillData) { return skillsCooldown[skillData.getId()]; }
     public void setSkillCooldown(SkillData skillData, int cooldown) {
-        if (this.skillsCooldown.containsKey(skillData)) {
-            skillsCooldown.replace(skillData, cooldown);
+        if (skillsCooldown[skillData.getId()] >= 0) {
+            skillsCooldown[skillData.getId()] = cooldown;
         }
     }
     public boolean isSkillReady(SkillData skillData) {
@@ -298,12 +368,19 @@ public class Unit implements Placeable, Destructible, PlayerUnit {
     }
 
     public void addEffect(EffectData effectData) {
-        this.effects.put(effectData, effectData.getDuration());
+        this.effects[effectData.getId()] = effectData.getDuration();
+        this.statsValid = false;
     }
 
-    public boolean hasEffect(EffectData effectData) { return this.effects.containsKey(effectData); }
+    public boolean hasEffect(EffectData effectData) { return this.effects[effectData.getId()] > 0; }
 
-    public Set<EffectData> getEffects() { return this.effects.keySet(); }
+    public List<EffectData> getEffects() {
+        List<EffectData> result = new ArrayList<>();
+        for (int i = 0; i < effects.length; ++i) {
+            if (effects[i] > 0) { result.add(Database.Effects[i]); }
+        }
+        return result;
+    }
 
     public void onAttacked() { this.wasAttacked = true; }
 
@@ -314,21 +391,21 @@ public class Unit implements Placeable, Destructible, PlayerUnit {
         if (!wasAttacked && remainingActionPoints == model.getMaxActions()
                 && !isInsideBuilding() && owner.hasUpgrade(Database.IncreasedRegeneration)) {
             if (health < getMaxHealth()) {
-                int amount = (int)owner.getUpgradeValue(Database.IncreasedRegeneration) * Configuration.BASE_REGENERATION / 100;
-                if (effects.containsKey(Database.Regeneration)) {
+                int amount = owner.getUpgradeValue(Database.IncreasedRegeneration) * Configuration.BASE_REGENERATION / 100;
+                if (hasEffect(Database.Regeneration)) {
                     amount += Database.Regeneration.getBaseValue();
                 }
                 restoreHealth(amount);
             }
         }
         else {
-            if (health < getMaxHealth() && effects.containsKey(Database.Regeneration)) {
+            if (health < getMaxHealth() && hasEffect(Database.Regeneration)) {
                 restoreHealth(Database.Regeneration.getBaseValue());
             }
         }
 
         // Krwawienie
-        if (effects.containsKey(Database.Bleeding)) {
+        if (hasEffect(Database.Bleeding)) {
             // TODO: Znowu compy-paste
             this.receiveDamage(Database.Bleeding.getBaseValue());
             if (getHealth() == 0) {
@@ -338,14 +415,9 @@ public class Unit implements Placeable, Destructible, PlayerUnit {
             }
         }
 
-        Set<EffectData> currentEffects = new HashSet<>(effects.keySet());
-        for (EffectData effect : currentEffects) {
-            int turnsLeft = this.effects.get(effect) - 1;
-            if (turnsLeft == 0) {
-                effects.remove(effect);
-            }
-            else {
-                effects.replace(effect, turnsLeft);
+        for (int i = 0; i < effects.length; ++i) {
+            if (effects[i] > 0 && --effects[i] == 0) {
+                statsValid = false;
             }
         }
 
@@ -6,6 +6,7 @@ import swarogi.common.Configuration;
 import swarogi.datamodels.AttackData;
 import swarogi.engine.Pathfinding;
 import swarogi.enums.*;
+import swarogi.game.DestructiblesInRange;
 import swarogi.game.GameCamera;
 import swarogi.game.GameMap;
 import swarogi.game.Tile;
@@ -205,6 +206,21 @@ class TargetManager {
             }
         }
 
+        // Cele wszystkich ataków zasięgowych wyszukiwane są jednym zapytaniem zbiorczym (pole jednostki, zasięg ataku)
+        int[] rangedOrigins = new int[attacks.size()];
+        int[] rangedRadii = new int[attacks.size()];
+        int rangedAttacksCount = 0;
+        for (AttackData attack : attacks) {
+            if (attack.getAttackType() == AttackType.Ranged) {
+                rangedOrigins[rangedAttacksCount] = unit.getTile().getIndex();
+                rangedRadii[rangedAttacksCount] = attack.getMaxDistance();
+                ++rangedAttacksCount;
+            }
+        }
+        DestructiblesInRange rangedAttackTargets = new DestructiblesInRange();
+        map.findDestructiblesInRange(rangedOrigins, rangedRadii, rangedAttacksCount, rangedAttackTargets);
+        int rangedQuery = 0;
+
         for (AttackData currentAttackData : attacks) {
             AttackType currentAttackType = currentAttackData.getAttackType();
 
@@ -234,13 +250,13 @@ class TargetManager {
             else if (currentAttackType == AttackType.Ranged) {
 
                 // Cele dla ataków zasięgowych nie są wspólne. Znajdź dopuszczalne cele:
-                HashMap<Destructible, Integer> rangedAttackTargets = map.getMinDistancesToDestructiblesInRange(unit.getTile(),
-                        currentAttackData.getMaxDistance());
                 int minDistance = currentAttackData.getMinDistance();
+                int query = rangedQuery++;
 
-                for (Destructible destructible : rangedAttackTargets.keySet()) {
+                for (int entry = rangedAttackTargets.getStart(query); entry < rangedAttackTargets.getEnd(query); ++entry) {
                     // Cel musi być w minimalnym zasięgu
-                    if (rangedAttackTargets.get(destructible) >= minDistance) {
+                    if (rangedAttackTargets.getDistance(entry) >= minDistance) {
+                        Destructible destructible = rangedAttackTargets.getDestructible(entry);
 
                         if (destructiblesInRange.containsKey(destructible)) {
                             // Cel może być osiągnięty innym atakiem
@@ -35,6 +35,8 @@ public class BuildingPlayerMode extends SelectionPlayerMode {
     BuildingData plannedBuilding;
     List<Tile> buildingTiles;
     boolean isPositionValid;
+    boolean isHoverOutdated;
+    int hoverMapVersion;
 
     public BuildingPlayerMode(Player player, PlayerModeChangeListener listener, GameMap map, Unit unit) {
         super(player, listener, map);
@@ -118,7 +120,10 @@ public class BuildingPlayerMode extends SelectionPlayerMode {
         ControlsProvider controlsProvider = getControls();
 
         if (plannedBuilding != null) {
-            if (controlsProvider.hasMousePositionChanged() || getCamera().hasPositionChanged()) {
+            if (isHoverOutdated || hoverMapVersion != getMap().getVersion()
+                    || controlsProvider.hasMousePositionChanged() || getCamera().hasPositionChanged()) {
+                isHoverOutdated = false;
+                hoverMapVersion = getMap().getVersion();
                 updateHover();
             }
 
@@ -190,6 +195,7 @@ public class BuildingPlayerMode extends SelectionPlayerMode {
     private void changeBuilding(BuildingData building) {
         if (building != plannedBuilding && player.areRequirementsMet(building)) {
             plannedBuilding = building;
+            isHoverOutdated = true;
         }
     }
 
@@ -29,11 +29,14 @@ public class SelectionPlayerMode extends PlayerMode {
     private GameMap map;
     private Placeable hoveredPlaceable;
     private List<Tile> hoveredTiles;
+    private boolean isHoverOutdated;
+    private int hoverMapVersion;
 
     public SelectionPlayerMode(Player player, PlayerModeChangeListener listener, GameMap map) {
         super(player, listener);
         this.map = map;
         hoveredTiles = new ArrayList<>();
+        isHoverOutdated = true;
 
         Point pos = RenderingHelper.getTribePathIconPosition();
         Icon icon = new DiamondIcon();
@@ -91,7 +94,12 @@ public class SelectionPlayerMode extends PlayerMode {
     protected void updateHoverable() {
         Point mouseAbsolutePosition = getAbsoluteMousePosition();
 
-        if (player.getCamera().hasPositionChanged() || getControls().hasMousePositionChanged()) {
+        // Zaznaczenie wyznaczane jest ponownie tylko, gdy zmieniła się kamera, położenie myszy lub obiekty na mapie
+        boolean isHoveringMovingUnit = hoveredPlaceable instanceof Unit && ((Unit) hoveredPlaceable).isMoving();
+        if (isHoverOutdated || isHoveringMovingUnit || hoverMapVersion != map.getVersion()
+                || player.getCamera().hasPositionChanged() || getControls().hasMousePositionChanged()) {
+            isHoverOutdated = false;
+            hoverMapVersion = map.getVersion();
             Tile hoverTile = map.getTileByCoordinates(mouseAbsolutePosition.x, mouseAbsolutePosition.y);
 
             if (hoverTile != null) {
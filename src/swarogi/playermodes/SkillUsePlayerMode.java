@@ -4,10 +4,12 @@ import swarogi.actions.MovementAction;
 import swarogi.actions.SkillAction;
 import swarogi.common.Configuration;
 import swarogi.datamodels.SkillData;
+import swarogi.datamodels.TargetRules;
 import swarogi.engine.Movement;
 import swarogi.engine.Pathfinding;
 import swarogi.engine.Targeting;
 import swarogi.enums.*;
+import swarogi.game.DestructiblesInRange;
 import swarogi.game.GameCamera;
 import swarogi.game.GameMap;
 import swarogi.game.Tile;
@@ -37,21 +39,23 @@ public class SkillUsePlayerMode extends SelectionPlayerMode {
         this.skill = skill;
         this.allowedTargets = new HashMap<>();
 
-        List<TargetType> allowedTargetTypes = skill.getAllowedTargets();
+        TargetRules targetRules = skill.getTargetRules();
         int minDistance = skill.getMinDistance();
 
         if (skill.isApproachingTarget()) {
             pathfinding = new Pathfinding(unit.getTile(), unit.getSteps());
             for (Destructible destructible : pathfinding.getAccessibleTargets()) {
-                if (Targeting.canTarget(unit, destructible, allowedTargetTypes)) {
+                if (Targeting.canTarget(unit, destructible, targetRules)) {
                     this.allowedTargets.put(destructible, getTilesForTarget(destructible));
                 }
             }
         }
         else {
-            HashMap<Destructible, Integer> destructiblesInRange = map.getMinDistancesToDestructiblesInRange(unit.getTile(), skill.getMaxDistance());
-            for (Destructible destructible : destructiblesInRange.keySet()) {
-                if (minDistance <= destructiblesInRange.get(destructible) && Targeting.canTarget(unit, destructible, allowedTargetTypes)) {
+            DestructiblesInRange destructiblesInRange = new DestructiblesInRange();
+            map.findDestructiblesInRange(unit.getTile(), skill.getMaxDistance(), destructiblesInRange);
+            for (int entry = destructiblesInRange.getStart(0); entry < destructiblesInRange.getEnd(0); ++entry) {
+                Destructible destructible = destructiblesInRange.getDestructible(entry);
+                if (minDistance <= destructiblesInRange.getDistance(entry) && Targeting.canTarget(unit, destructible, targetRules)) {
                     this.allowedTargets.put(destructible, getTilesForTarget(destructible));
                 }
             }
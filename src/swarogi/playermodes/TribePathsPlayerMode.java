@@ -140,7 +140,7 @@ public class TribePathsPlayerMode extends PlayerMode {
                     Map<UpgradeData, Integer> upgrades = hoveredPath.getUpgrades(pathLevel);
                     for (UpgradeData upgrade : upgrades.keySet()) {
                         int upgradeLevel = upgrades.get(upgrade);
-                        text.append(upgrade.getDescription().replace("{value}", upgrade.getValue(upgradeLevel).toString()));
+                        text.append(upgrade.getDescription().replace("{value}", Integer.toString(upgrade.getValue(upgradeLevel))));
                     }
                     setText(text.toString());
                 } else {